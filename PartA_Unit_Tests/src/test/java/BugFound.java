@@ -1,4 +1,5 @@
 import io.restassured.RestAssured;
+import support.IdExtractor;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -9,6 +10,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -26,7 +28,10 @@ public class BugFound {
     private int projectId;
     private int todoId;
 
-    private final String TODO_TITLE = "Test Todo";
+    // Unique per test, so tests running in parallel never see each other's fixtures
+    private final String prefix = "BugFound-" + UUID.randomUUID().toString().substring(0, 8) + " ";
+
+    private final String TODO_TITLE = prefix + "Test Todo";
     private final String TODO_DESCRIPTION = "Description of the test todo";
 
     private final String UPDATED_TITLE = "New title";
@@ -36,13 +41,13 @@ public class BugFound {
 
     @BeforeAll
     public static void initialSetup() {
-        RestAssured.baseURI = "http://localhost:4567";
+        RestAssured.baseURI = System.getProperty("todo.baseUri", "http://localhost:4567");
     }
 
     public void createProject() {
         // Create a project before each test
         Map<String, String> projectData = new HashMap<>();
-        projectData.put("title", "Test Project");
+        projectData.put("title", prefix + "Test Project");
         projectData.put("description", "Description of the test project");
 
         Response response = given()
@@ -53,7 +58,7 @@ public class BugFound {
         assertEquals(201, response.getStatusCode());
 
         // Extract the project ID for further operations
-        projectId = response.jsonPath().getInt("id");
+        projectId = IdExtractor.fromResponse(response);
         System.out.println("Set Up project with ID projectId");
     }
 
@@ -73,7 +78,7 @@ public class BugFound {
         assertEquals(201, response.getStatusCode());
 
         // Extract the project ID for further operations
-        todoId = response.jsonPath().getInt("id");
+        todoId = IdExtractor.fromResponse(response);
         System.out.println("Set Up todo with ID " + todoId);
     }
 
@@ -128,7 +133,7 @@ public class BugFound {
     @Test
     void testGetBidirectionalRelationshipTodoProjectWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -143,7 +148,7 @@ public class BugFound {
     @Test
     void testHeadBidirectionalRelationshipTodoProjectWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -156,7 +161,7 @@ public class BugFound {
     @Test
     void testGetBidirectionalRelationshipProjectTodoWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -171,7 +176,7 @@ public class BugFound {
     @Test
     void testHeadBidirectionalRelationshipProjectTodoWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -184,7 +189,7 @@ public class BugFound {
     @Test
     void testGetUnidirectionalRelationshipTodoCategoryWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -199,7 +204,7 @@ public class BugFound {
     @Test
     void testHeadUnidirectionalRelationshipTodoCategoryWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -212,7 +217,7 @@ public class BugFound {
     @Test
     void testGetUnidirectionalRelationshipCategoryTodoWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -227,7 +232,7 @@ public class BugFound {
     @Test
     void testHeadBidirectionalRelationshipCategoryTodoWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -240,7 +245,7 @@ public class BugFound {
     @Test
     void testGetUnidirectionalRelationshipProjectCategoryWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -255,7 +260,7 @@ public class BugFound {
     @Test
     void testHeadUnidirectionalRelationshipProjectCategoryWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -268,7 +273,7 @@ public class BugFound {
     @Test
     void testGetUnidirectionalRelationshipCategoryProjectWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -283,7 +288,7 @@ public class BugFound {
     @Test
     void testHeadBidirectionalRelationshipCategoryProjectWithInvalidId() {
         //getting relationships of invalid id
-        int invalidId = 600;
+        int invalidId = Integer.MAX_VALUE;
         Response response = given()
                 .contentType("application/json")
                 .pathParam("id", invalidId)
@@ -302,6 +307,16 @@ public class BugFound {
             assertEquals(200, response.getStatusCode());
         }
         todoDeleted = false;
+
+        // Delete the project the test created, if any
+        if (projectId != 0) {
+            Response response = given()
+                    .pathParam("id", projectId)
+                    .when()
+                    .delete("/projects/{id}");
+            assertEquals(200, response.getStatusCode());
+            projectId = 0;
+        }
     }
 
 }
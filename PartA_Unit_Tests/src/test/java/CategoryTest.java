@@ -10,10 +10,12 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import static io.restassured.RestAssured.delete;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeAll;
 import io.restassured.RestAssured;
+import support.IdExtractor;
 import io.restassured.response.Response;
 import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -31,21 +33,24 @@ public class CategoryTest {
     private int categoryId;
     private boolean categoryDeleted = false;
 
-    private String mockTitle = "Test Category";
+    // Unique per test, so tests running in parallel never see each other's fixtures
+    private final String prefix = "CategoryTest-" + UUID.randomUUID().toString().substring(0, 8) + " ";
+
+    private String mockTitle = prefix + "Test Category";
     private String mockDescription = "Description of the test Category";
-    private String mockUpdateTitle = "Updated Test Category";
+    private String mockUpdateTitle = prefix + "Updated Test Category";
     private String mockUpdateDescription = "Updated Description of the Test Category";
 
     @BeforeAll
     public static void initialSetup() {
-        RestAssured.baseURI = "http://localhost:4567";
+        RestAssured.baseURI = System.getProperty("todo.baseUri", "http://localhost:4567");
     }
 
     @Test
     void testServerIsRunning() {
         categoryDeleted = false;  // Reset the flag during setup
         try {
-            URL url = new URL("http://localhost:4567");
+            URL url = new URL(RestAssured.baseURI);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
             int responseCode = connection.getResponseCode();
@@ -70,7 +75,7 @@ public class CategoryTest {
                 .post("/categories");
         assertEquals(201, response.getStatusCode());
 
-        categoryId = response.jsonPath().getInt("id");
+        categoryId = IdExtractor.fromResponse(response);
         System.out.println("Set Up category with ID " + categoryId);
 
         assertEquals(mockTitle, response.jsonPath().getString("title"));
@@ -130,7 +135,7 @@ public class CategoryTest {
         assertTrue(responseBody.contains("testPostCategoryWithoutID"));
 
         //delete the created category to restore system state
-        int categoryId = response.jsonPath().getInt("id");
+        int categoryId = IdExtractor.fromResponse(response);
         Response deleteResponse = given()
                 .pathParam("id", categoryId)
                 .when()
@@ -153,7 +158,7 @@ public class CategoryTest {
         assertTrue(response.contentType().contains(ContentType.JSON.toString()));
 
         //delete the created category to restore system state
-        int categoryId = response.jsonPath().getInt("id");
+        int categoryId = IdExtractor.fromResponse(response);
         Response deleteResponse = given()
                 .pathParam("id", categoryId)
                 .when()
@@ -165,14 +170,16 @@ public class CategoryTest {
     void testGetFilteredCategories() {
         Response response = given()
                 .accept(ContentType.JSON)
-                .queryParam("title", "Test Category")
+                .queryParam("title", mockTitle)
                 .when()
                 .get("/categories");
         assertEquals(200, response.getStatusCode());
         assertTrue(response.contentType().contains(ContentType.JSON.toString()));
 
-        // Validate that the filtered category object indeed have the matching fields.
-        assertEquals("Test Category", response.jsonPath().getString("categories[0].title"));
+        // Validate that the filter returned exactly the category this test created.
+        assertEquals(1, response.jsonPath().getList("categories").size());
+        assertEquals(String.valueOf(categoryId), response.jsonPath().getString("categories[0].id"));
+        assertEquals(mockTitle, response.jsonPath().getString("categories[0].title"));
     }
 
     // --------------------- /categories/:id --------------------
@@ -337,7 +344,7 @@ public class CategoryTest {
 
     @Test
     public void testDeleteNonExistingCategory() {
-        int categoryId = 1000;
+        int categoryId = Integer.MAX_VALUE;
         Response response = delete("/categories/" + categoryId);
         assertEquals(404, response.getStatusCode());
     }
@@ -345,7 +352,7 @@ public class CategoryTest {
     @Test
     void testFetchCetegoryWithNonExistentFilter() {
         Response response = given()
-                .queryParam("title", "non-existent-filter")
+                .queryParam("title", prefix + "non-existent-filter")
                 .when()
                 .get("/categories");
 
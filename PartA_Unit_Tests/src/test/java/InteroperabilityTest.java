@@ -1,3 +1,4 @@
+import support.FixtureService;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
@@ -7,6 +8,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,107 +21,48 @@ public class InteroperabilityTest {
     HashMap<String,Object> testTodo;
     HashMap<String,Object> testCategory;
 
+    // Unique per test, so tests running in parallel never see each other's fixtures
+    private final String prefix = "InteroperabilityTest-" + UUID.randomUUID().toString().substring(0, 8) + " ";
+    // No entity has this id, however many the server holds
+    private static final int UNKNOWN_ID = Integer.MAX_VALUE;
+
+    private static FixtureService fixtures;
+    private FixtureService.Graph graph;
+
     void updateTestVariables()
     {
-        if (testTodo != null)
-        {
-            Response response = given()
-                    .pathParam("id", testTodo.get("id"))
-                    .when()
-                    .get("/todos/{id}");
-            testTodo.putAll(response.jsonPath().get("todos[0]"));
-        }
-        if (testProject != null)
-        {
-            Response response = given()
-                    .pathParam("id", testProject.get("id"))
-                    .when()
-                    .get("/projects/{id}");
-            testProject.putAll(response.jsonPath().getMap("projects[0]"));
-        }
-        if (testCategory != null)
-        {
-            Response response = given()
-                    .pathParam("id", testCategory.get("id"))
-                    .when()
-                    .get("/categories/{id}");
-            testCategory.putAll(response.jsonPath().getMap("categories[0]"));
-        }
+        fixtures.refresh(graph);
     }
     @BeforeAll
     public static void initialSetup(){
-        RestAssured.baseURI = "http://localhost:4567";
+        RestAssured.baseURI = System.getProperty("todo.baseUri", "http://localhost:4567");
+        fixtures = new FixtureService(RestAssured.baseURI);
+    }
+    @AfterAll
+    public static void finalTeardown(){
+        fixtures.close();
     }
     @BeforeEach
     public void createTestVariables()
     {
-        // creating a test project instance
-        testProject = new HashMap<>();
-        testProject.put("title", "testProject");
-        Response response = given()
-                .contentType("application/json")
-                .body(testProject)
-                .when()
-                .post("/projects");
-        assertEquals(201, response.getStatusCode());
-        testProject.putAll(response.jsonPath().getMap(""));
-
-        //creating a test todo instance
-        testTodo = new HashMap<>();
-        testTodo.put("title", "testTodo");
-        response = given()
-                .contentType("application/json")
-                .body(testTodo)
-                .when()
-                .post("/todos");
-        assertEquals(201, response.getStatusCode());
-        testTodo.putAll(response.jsonPath().getMap(""));
-        //creating a test category
-        testCategory = new HashMap<>();
-        testCategory.put("title", "testCategory");
-        response = given()
-                .contentType("application/json")
-                .body(testCategory)
-                .when()
-                .post("/categories");
-        assertEquals(201, response.getStatusCode());
-        testCategory.putAll(response.jsonPath().getMap(""));
+        // a test project, todo and category, created concurrently
+        graph = fixtures.seed(prefix);
+        testProject = graph.project;
+        testTodo = graph.todo;
+        testCategory = graph.category;
     }
     @AfterEach
     public void cleanup()
     {
-        if (testTodo != null)
-        {
-            Response response = given()
-                    .pathParam("id", testTodo.get("id"))
-                    .when()
-                    .delete("/todos/{id}");
-            assertEquals(200, response.getStatusCode());
-            testTodo = null;
-        }
-        if (testProject != null)
-        {
-            Response response = given()
-                    .pathParam("id", testProject.get("id"))
-                    .when()
-                    .delete("/projects/{id}");
-            assertEquals(200, response.getStatusCode());
-            testProject = null;
-        }
-        if (testCategory != null)
-        {
-            Response response = given()
-                    .pathParam("id", testCategory.get("id"))
-                    .when()
-                    .delete("/categories/{id}");
-            assertEquals(200, response.getStatusCode());
-            testCategory = null;
-        }
+        fixtures.teardown(graph);
+        testTodo = null;
+        testProject = null;
+        testCategory = null;
     }
     @Test
     void testServerIsRunning() {
         try {
-            URL url = new URL("http://localhost:4567");
+            URL url = new URL(RestAssured.baseURI);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
             int responseCode = connection.getResponseCode();
@@ -135,7 +78,7 @@ public class InteroperabilityTest {
         Response response = given()
                 .contentType("application/json")
                 .body(testProject)
-                .pathParam("id", 4567)
+                .pathParam("id", UNKNOWN_ID)
                 .when()
                 .post("/todos/{id}/tasksof");
         assertEquals(404,response.getStatusCode());
@@ -160,8 +103,8 @@ public class InteroperabilityTest {
         //deleting project-todo relationship with invalid id
         Response response = given()
                 .contentType("application/json")
-                .pathParam("id", 2344)
-                .pathParam("id2", 4555)
+                .pathParam("id", UNKNOWN_ID)
+                .pathParam("id2", UNKNOWN_ID)
                 .when()
                 .delete("/todos/{id}/tasksof/{id2}");
         assertEquals(404,response.getStatusCode());
@@ -241,7 +184,7 @@ public class InteroperabilityTest {
         Response response = given()
                 .contentType("application/json")
                 .body(testTodo)
-                .pathParam("id", 3245)
+                .pathParam("id", UNKNOWN_ID)
                 .when()
                 .post("/projects/{id}/tasks");
         assertEquals(404,response.getStatusCode());
@@ -265,8 +208,8 @@ public class InteroperabilityTest {
         //deleting project-todo relationship with invalid id
         Response response = given()
                 .contentType("application/json")
-                .pathParam("id", 2344)
-                .pathParam("id2", 2344)
+                .pathParam("id", UNKNOWN_ID)
+                .pathParam("id2", UNKNOWN_ID)
                 .when()
                 .delete("/projects/{id}/tasks/{id2}");
         assertEquals(404,response.getStatusCode());
@@ -345,7 +288,7 @@ public class InteroperabilityTest {
         Response response = given()
                 .contentType("application/json")
                 .body(testCategory)
-                .pathParam("id", 2342)
+                .pathParam("id", UNKNOWN_ID)
                 .when()
                 .post("/todos/{id}/categories");
         assertEquals(404,response.getStatusCode());
@@ -369,8 +312,8 @@ public class InteroperabilityTest {
         //deleting todo-category relationship with invalid id
         Response response = given()
                 .contentType("application/json")
-                .pathParam("id", 3245)
-                .pathParam("id2", 3455)
+                .pathParam("id", UNKNOWN_ID)
+                .pathParam("id2", UNKNOWN_ID)
                 .when()
                 .delete("/todos/{id}/categories/{id2}");
         assertEquals(404,response.getStatusCode());
@@ -449,7 +392,7 @@ public class InteroperabilityTest {
         Response response = given()
                 .contentType("application/json")
                 .body(testTodo)
-                .pathParam("id", 1233)
+                .pathParam("id", UNKNOWN_ID)
                 .when()
                 .post("/categories/{id}/todos");
         assertEquals(404,response.getStatusCode());
@@ -472,8 +415,8 @@ public class InteroperabilityTest {
         //deleting category-todo relationship with invalid id
         Response response = given()
                 .contentType("application/json")
-                .pathParam("id", 2344)
-                .pathParam("id2", 3455)
+                .pathParam("id", UNKNOWN_ID)
+                .pathParam("id2", UNKNOWN_ID)
                 .when()
                 .delete("/categories/{id}/todos/{id2}");
         assertEquals(404,response.getStatusCode());
@@ -551,7 +494,7 @@ public class InteroperabilityTest {
         Response response = given()
                 .contentType("application/json")
                 .body(testCategory)
-                .pathParam("id", 3455)
+                .pathParam("id", UNKNOWN_ID)
                 .when()
                 .post("/projects/{id}/categories");
         assertEquals(404,response.getStatusCode());
@@ -575,8 +518,8 @@ public class InteroperabilityTest {
         //deleting project-category relationship with invalid id
         Response response = given()
                 .contentType("application/json")
-                .pathParam("id", 3444)
-                .pathParam("id2", 4444)
+                .pathParam("id", UNKNOWN_ID)
+                .pathParam("id2", UNKNOWN_ID)
                 .when()
                 .delete("/projects/{id}/categories/{id2}");
         assertEquals(404,response.getStatusCode());
@@ -657,7 +600,7 @@ public class InteroperabilityTest {
         Response response = given()
                 .contentType("application/json")
                 .body(testProject)
-                .pathParam("id", 4444)
+                .pathParam("id", UNKNOWN_ID)
                 .when()
                 .post("/categories/{id}/projects");
         assertEquals(404,response.getStatusCode());
@@ -680,8 +623,8 @@ public class InteroperabilityTest {
         //deleting category-project relationship with invalid ids
         Response response = given()
                 .contentType("application/json")
-                .pathParam("id", 4444)
-                .pathParam("id2", 5555)
+                .pathParam("id", UNKNOWN_ID)
+                .pathParam("id2", UNKNOWN_ID)
                 .when()
                 .delete("/categories/{id}/projects/{id2}");
         assertEquals(404,response.getStatusCode());
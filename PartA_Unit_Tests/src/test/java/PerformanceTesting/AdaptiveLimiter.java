@@ -0,0 +1,94 @@
+package PerformanceTesting;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient style adaptive concurrency limit. The limit follows the ratio between the lowest round
+ * trip time seen recently (the no-load RTT) and the latest sample: while responses come back as
+ * fast as at no load the limit keeps growing by about sqrt(limit), and once queueing pushes RTT up
+ * the gradient drops below one and the limit shrinks toward what the server can actually serve.
+ * Requests over the limit are refused by tryAcquire() instead of being queued.
+ */
+public class AdaptiveLimiter {
+
+    // RTT may grow to this multiple of the no-load RTT before the limit starts shrinking
+    private static final double TOLERANCE = 2.0;
+    private static final double SMOOTHING = 0.2;
+    // The no-load RTT is the lowest RTT of the last two windows of this many samples, so a change
+    // in workload mix is picked up without one congested sample becoming the baseline
+    private static final int MIN_RTT_WINDOW_SAMPLES = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private long previousWindowMinRttNanos = Long.MAX_VALUE;
+    private int samples;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit taken by tryAcquire(). {@code dropped} marks a request the server shed or
+     * that failed without a response; those back the limit off directly instead of sampling RTT.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, dropped, current);
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int inFlightAtRelease) {
+        if (dropped) {
+            // Multiplicative decrease, unsmoothed: every drop takes 10% off the limit
+            limit = Math.max(minLimit, limit * 0.9);
+            return;
+        }
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        if (++samples >= MIN_RTT_WINDOW_SAMPLES) {
+            samples = 0;
+            previousWindowMinRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+        }
+        minRttNanos = Math.min(previousWindowMinRttNanos, windowMinRttNanos);
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * minRttNanos / rttNanos));
+        double newLimit = limit * gradient;
+        // Only grow when the limit is actually in use, otherwise an idle client inflates it;
+        // queueing still shrinks it at low use
+        if (inFlightAtRelease >= limit / 2) {
+            newLimit += Math.sqrt(limit);
+        }
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized long getMinRttNanos() {
+        return minRttNanos == Long.MAX_VALUE ? 0 : minRttNanos;
+    }
+}
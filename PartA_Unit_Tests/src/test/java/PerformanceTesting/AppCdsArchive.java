@@ -0,0 +1,89 @@
+package PerformanceTesting;
+
+import support.IdExtractor;
+import static io.restassured.RestAssured.given;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds a dynamic AppCDS archive for the Todo Manager server. A server is started with
+ * -XX:ArchiveClassesAtExit, a training run sends it the requests the tests send (JSON and XML,
+ * every collection, relationships, filters, error paths) so the classes behind them get loaded,
+ * and the server is shut down so the JVM writes the archive on exit. Servers started with
+ * -XX:SharedArchiveFile pointing at the archive map those classes instead of loading and verifying
+ * them again. Run by the appcds profile ({@code mvn -Pappcds process-test-classes}), which writes
+ * target/todomanager.jsa.
+ */
+public class AppCdsArchive {
+
+    public static final String DEFAULT_ARCHIVE = Paths.get("target", "todomanager.jsa").toString();
+
+    private static void train(String baseUrl) {
+        String[] endpoints = {"/todos", "/projects", "/categories"};
+        String[] elements = {"todo", "project", "category"};
+        for (int e = 0; e < endpoints.length; e++) {
+            String endpoint = endpoints[e];
+            Map<String, Object> data = new HashMap<>();
+            data.put("title", "Title 1");
+            data.put("description", "Description for 1th object");
+            int id = IdExtractor.fromResponse(given().baseUri(baseUrl).contentType("application/json").body(data)
+                    .when().post(endpoint));
+
+            given().baseUri(baseUrl).when().get(endpoint);
+            given().baseUri(baseUrl).accept("application/xml").when().get(endpoint);
+            given().baseUri(baseUrl).queryParam("title", "Title 1").when().get(endpoint);
+            given().baseUri(baseUrl).when().get(endpoint + "/" + id);
+            given().baseUri(baseUrl).accept("application/xml").when().get(endpoint + "/" + id);
+            given().baseUri(baseUrl).when().head(endpoint + "/" + id);
+            given().baseUri(baseUrl).contentType("application/json").body(data).when().put(endpoint + "/" + id);
+            given().baseUri(baseUrl).contentType("application/json").body(data).when().post(endpoint + "/" + id);
+            given().baseUri(baseUrl).contentType("application/xml")
+                    .body("<" + elements[e] + "><title>Title 2</title></" + elements[e] + ">")
+                    .when().post(endpoint);
+            given().baseUri(baseUrl).contentType("application/json").body("{\"title\":").when().post(endpoint);
+            given().baseUri(baseUrl).when().delete(endpoint + "/" + id);
+            given().baseUri(baseUrl).when().get(endpoint + "/" + id);
+        }
+
+        Map<String, Object> link = new HashMap<>();
+        link.put("id", "1");
+        given().baseUri(baseUrl).contentType("application/json").body(link).when().post("/todos/1/tasksof");
+        given().baseUri(baseUrl).when().get("/todos/1/tasksof");
+        given().baseUri(baseUrl).when().get("/projects/1/tasks");
+        given().baseUri(baseUrl).when().get("/todos/1/categories");
+        given().baseUri(baseUrl).when().get("/categories/1/todos");
+    }
+
+    /**
+     * Trains a fresh server and writes its class archive to the given file.
+     */
+    public static void build(Path archive) throws IOException {
+        Files.createDirectories(archive.toAbsolutePath().getParent());
+        Files.deleteIfExists(archive);
+        ServerProcess server = ServerProcess.start(
+                Collections.singletonList("-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath()));
+        train(server.getBaseUrl());
+        server.shutdown(60_000);
+        if (!Files.exists(archive)) {
+            throw new IOException("Server exited without writing " + archive);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path archive = Paths.get(args.length > 0 ? args[0] : DEFAULT_ARCHIVE);
+
+        long startTime = System.nanoTime();
+        build(archive);
+        long endTime = System.nanoTime();
+
+        double timeTaken = (endTime - startTime) / 1_000_000_000.0;
+
+        System.out.println("Wrote " + archive + " (" + Files.size(archive) / 1024 + " KiB) in " + timeTaken + " seconds");
+    }
+}
@@ -0,0 +1,26 @@
+package PerformanceTesting;
+
+/**
+ * Entry point shared by the benchmark mains: the address of the server they run against and the
+ * wall-clock timing every run reports at the end.
+ */
+public final class Benchmark {
+
+    public static final String BASE_URL = "http://localhost:4567";
+
+    private Benchmark() {
+    }
+
+    /**
+     * Runs the test and prints "Total time taken for &lt;description&gt;: N seconds".
+     */
+    public static void run(String description, Runnable test) {
+        long startTime = System.nanoTime();
+        test.run();
+        long endTime = System.nanoTime();
+
+        double timeTaken = (endTime - startTime) / 1_000_000_000.0;
+
+        System.out.println("Total time taken for " + description + ": " + timeTaken + " seconds");
+    }
+}
@@ -0,0 +1,105 @@
+package PerformanceTesting;
+
+import support.HarnessClient;
+import support.HarnessResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The create, read, update, link and delete calls the benchmarks build their data with, sent
+ * through the run's {@link HarnessClient}. Entities are addressed by endpoint ("/todos",
+ * "/projects", "/categories") and id, relationships by name ("tasks", "categories", ...).
+ */
+public class BenchmarkFixtures implements AutoCloseable {
+
+    private final HarnessClient client;
+
+    public BenchmarkFixtures() {
+        this(Benchmark.BASE_URL);
+    }
+
+    public BenchmarkFixtures(String baseUrl) {
+        this.client = HarnessClient.forRun(baseUrl);
+    }
+
+    /**
+     * Body with a title and, unless it is null, a description.
+     */
+    public static Map<String, Object> fields(String title, String description) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("title", title);
+        if (description != null) {
+            data.put("description", description);
+        }
+        return data;
+    }
+
+    public HarnessResponse create(String endpoint, Map<String, Object> fields) {
+        return client.send("POST", endpoint, fields);
+    }
+
+    public HarnessResponse create(String endpoint, String title, String description) {
+        return create(endpoint, fields(title, description));
+    }
+
+    /**
+     * Creates the entity and returns its id, failing when the server did not answer 201.
+     */
+    public int createId(String endpoint, Map<String, Object> fields) {
+        HarnessResponse response = create(endpoint, fields);
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException("POST " + endpoint + " returned " + response.getStatusCode() + ": " + response.asString());
+        }
+        return response.getId();
+    }
+
+    public int createId(String endpoint, String title, String description) {
+        return createId(endpoint, fields(title, description));
+    }
+
+    /**
+     * Creates an entity and links it to endpoint/id in one call, e.g. a todo created through
+     * POST /projects/{id}/tasks, and returns the new entity's id.
+     */
+    public int createLinkedId(String endpoint, int id, String relationship, String title) {
+        return createId(endpoint + "/" + id + "/" + relationship, fields(title, null));
+    }
+
+    public HarnessResponse get(String path) {
+        return client.send("GET", path, null);
+    }
+
+    public HarnessResponse get(String endpoint, int id) {
+        return get(endpoint + "/" + id);
+    }
+
+    public HarnessResponse update(String endpoint, int id, String title, String description) {
+        return client.send("POST", endpoint + "/" + id, fields(title, description));
+    }
+
+    public HarnessResponse delete(String endpoint, int id) {
+        return client.send("DELETE", endpoint + "/" + id, null);
+    }
+
+    public void deleteAll(String endpoint, Iterable<Integer> ids) {
+        for (int id : ids) {
+            delete(endpoint, id);
+        }
+    }
+
+    public HarnessResponse link(String endpoint, int id, String relationship, int otherId) {
+        Map<String, Object> linkData = new HashMap<>();
+        linkData.put("id", String.valueOf(otherId));
+        return client.send("POST", endpoint + "/" + id + "/" + relationship, linkData);
+    }
+
+    public HarnessResponse unlink(String endpoint, int id, String relationship, int otherId) {
+        return client.send("DELETE", endpoint + "/" + id + "/" + relationship + "/" + otherId, null);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,80 @@
+package PerformanceTesting;
+
+import io.restassured.path.json.JsonPath;
+import support.HarnessResponse;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how long DELETE /projects/{id} takes as a function of the number of linked tasks.
+ * Each run builds a project with a given degree (tasks are created and linked in one call through
+ * POST /projects/{id}/tasks), optionally surrounded by unrelated background todos, then times the
+ * delete and checks that the former tasks no longer point at the project. If deletes only touch
+ * the project's own adjacency entries, delete time grows with degree and is flat in background size.
+ */
+public class CascadeDeleteTest {
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+
+    private boolean stillLinked(int todoId, int projectId) {
+        HarnessResponse response = fixtures.get("/todos/" + todoId + "/tasksof");
+        List<String> projectIds = JsonPath.from(response.asString()).getList("projects.id", String.class);
+        return projectIds != null && projectIds.contains(String.valueOf(projectId));
+    }
+
+    private void runDegree(FileWriter writer, int degree, List<Integer> backgroundIds) throws IOException {
+        int projectId = fixtures.createId("/projects", "Cascade Project " + degree, null);
+        List<Integer> taskIds = new ArrayList<>();
+        for (int i = 1; i <= degree; i++) {
+            taskIds.add(fixtures.createLinkedId("/projects", projectId, "tasks", "Task " + i));
+        }
+
+        long startTime = System.nanoTime();
+        HarnessResponse deleteResponse = fixtures.delete("/projects", projectId);
+        long timeToDelete = System.nanoTime() - startTime;
+
+        boolean dangling = !taskIds.isEmpty() && stillLinked(taskIds.get(taskIds.size() - 1), projectId);
+
+        writer.write(degree + ", " + backgroundIds.size() + ", " + timeToDelete + ", " +
+                (degree == 0 ? 0 : (double) timeToDelete / degree) + ", " +
+                deleteResponse.getStatusCode() + ", " + dangling + "\n");
+        System.out.println("degree " + degree + " (background " + backgroundIds.size() + "): " +
+                timeToDelete / 1_000_000.0 + " ms" + (dangling ? " DANGLING LINK" : ""));
+
+        fixtures.deleteAll("/todos", taskIds);
+    }
+
+    public void performanceTest(int maxDegree, int maxBackground) {
+        List<Integer> backgroundIds = new ArrayList<>();
+        try (FileWriter writer = new FileWriter("projectCascadeDelete.csv")) {
+            writer.write("#degree, background_todos, time_to_delete, time_per_link, status, dangling_link\n");
+
+            for (int background = 0; background <= maxBackground; background = background == 0 ? 1 : background * 10) {
+                // Grow the unrelated background set, it should not change the delete time
+                while (backgroundIds.size() < background) {
+                    backgroundIds.add(fixtures.createId("/todos", "Background " + backgroundIds.size(), null));
+                }
+                runDegree(writer, 0, backgroundIds);
+                for (int degree = 1; degree <= maxDegree; degree *= 10) {
+                    runDegree(writer, degree, backgroundIds);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        fixtures.deleteAll("/todos", backgroundIds);
+    }
+
+    public static void main(String[] args) {
+        CascadeDeleteTest test = new CascadeDeleteTest();
+        // Pass e.g. "100000 1000" for the full 100k-task run, it takes a while to build over HTTP
+        int maxDegree = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int maxBackground = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        Benchmark.run("cascade delete run up to degree " + maxDegree, () -> test.performanceTest(maxDegree, maxBackground));
+    }
+}
@@ -1,8 +1,8 @@
 package PerformanceTesting;
 
 import com.sun.management.OperatingSystemMXBean;
-import io.restassured.response.Response;
-import static io.restassured.RestAssured.given;
+import support.HarnessClient;
+import support.HarnessResponse;
 
 import java.lang.management.ManagementFactory;
 import java.util.HashMap;
@@ -16,39 +16,26 @@ public class CategoryTest {
 
     private static final String BASE_URL = "http://localhost:4567";
 
-    private Response createCategory(String title, String description) {
-        Map<String, Object> categoryData = new HashMap<>();
-        categoryData.put("title", title);
-        categoryData.put("description", description);
-
-        return given()
-                .baseUri(BASE_URL)
-                .contentType("application/json")
-                .body(categoryData)
-                .when()
-                .post("/categories");
+    private static final PayloadTemplate CREATE_CATEGORY = PayloadTemplate.compile(
+            "{\"title\":\"Title %d\",\"description\":\"Description for %dth object\"}");
+    private static final PayloadTemplate UPDATE_CATEGORY = PayloadTemplate.compile(
+            "{\"title\":\"Updated Title for %dth object\",\"description\":\"Updated Description for %dth object\"}");
+
+    private final RouteMetrics metrics = new RouteMetrics();
+    private final HarnessClient client = HarnessClient.forRun(BASE_URL);
+    private final byte[] createBuffer = CREATE_CATEGORY.newBuffer();
+    private final byte[] updateBuffer = UPDATE_CATEGORY.newBuffer();
+
+    private HarnessResponse createCategory(int i) {
+        return client.send("POST", "/categories", createBuffer, CREATE_CATEGORY.render(i, createBuffer));
     }
 
-    private Response updateCategory(int categoryId, String title, String description) {
-        Map<String, Object> categoryData = new HashMap<>();
-        categoryData.put("title", title);
-        categoryData.put("description", description);
-
-        return given()
-                .baseUri(BASE_URL)
-                .contentType("application/json")
-                .pathParam("id", categoryId)
-                .body(categoryData)
-                .when()
-                .post("/categories/{id}");
+    private HarnessResponse updateCategory(int categoryId, int i) {
+        return client.send("POST", "/categories/" + categoryId, updateBuffer, UPDATE_CATEGORY.render(i, updateBuffer));
     }
 
-    private Response deleteCategory(int categoryId) {
-        return given()
-                .baseUri(BASE_URL)
-                .pathParam("id", categoryId)
-                .when()
-                .delete("/categories/{id}");
+    private HarnessResponse deleteCategory(int categoryId) {
+        return client.send("DELETE", "/categories/" + categoryId, null);
     }
 
     private void delay() {
@@ -93,25 +80,37 @@ public class CategoryTest {
             // Create and Update categories
             for (int i = 1; i <= n; i++) {
                 // Create category
+                RequestPhaseEvent createEvent = RequestPhaseEvent.begin("POST /categories", "request");
                 long startTime = System.nanoTime();
-                Response createResponse = createCategory("Title " + i, "Description for " + i + "th object");
+                HarnessResponse createResponse = createCategory(i);
                 long timeToCreate = System.nanoTime() - startTime;
-                int categoryId = createResponse.jsonPath().getInt("id");
+                createEvent.finish();
+                metrics.record("POST", "/categories", createResponse, timeToCreate);
+                RequestPhaseEvent parseEvent = RequestPhaseEvent.begin("POST /categories", "parse_id");
+                int categoryId = createResponse.getId();
+                parseEvent.finish();
                 categoryIds.add(categoryId);
                 delay();
 
                 // Record metrics after creating
+                RequestPhaseEvent createMetricsEvent = RequestPhaseEvent.begin("POST /categories", "system_metrics");
                 Map<String, Object> createMetrics = getSystemMetrics();
+                createMetricsEvent.finish();
                 double createMemoryUsage = (double) createMetrics.get("used_memory");
                 double createCpuUsage = (double) createMetrics.get("cpu_load");
 
                 // Update category
+                RequestPhaseEvent updateEvent = RequestPhaseEvent.begin("POST /categories/{id}", "request");
                 startTime = System.nanoTime();
-                updateCategory(categoryId, "Updated Title for " + i + "th object", "Updated Description for " + i + "th object");
+                HarnessResponse updateResponse = updateCategory(categoryId, i);
                 long timeToUpdate = System.nanoTime() - startTime;
+                updateEvent.finish();
+                metrics.record("POST", "/categories/{id}", updateResponse, timeToUpdate);
 
                 // Record metrics after updating
+                RequestPhaseEvent updateMetricsEvent = RequestPhaseEvent.begin("POST /categories/{id}", "system_metrics");
                 Map<String, Object> updateMetrics = getSystemMetrics();
+                updateMetricsEvent.finish();
                 double updateMemoryUsage = (double) updateMetrics.get("used_memory");
                 double updateCpuUsage = (double) updateMetrics.get("cpu_load");
 
@@ -134,12 +133,17 @@ public class CategoryTest {
 
             // Delete categories and write metrics to CSV
             for (int i = 0; i < categoryIds.size(); i++) {
+                RequestPhaseEvent deleteEvent = RequestPhaseEvent.begin("DELETE /categories/{id}", "request");
                 long startTime = System.nanoTime();
-                deleteCategory(categoryIds.get(i));
+                HarnessResponse deleteResponse = deleteCategory(categoryIds.get(i));
                 long timeToDelete = System.nanoTime() - startTime;
+                deleteEvent.finish();
+                metrics.record("DELETE", "/categories/{id}", deleteResponse, timeToDelete);
 
                 // Record metrics after deleting
+                RequestPhaseEvent deleteMetricsEvent = RequestPhaseEvent.begin("DELETE /categories/{id}", "system_metrics");
                 Map<String, Object> deleteMetrics = getSystemMetrics();
+                deleteMetricsEvent.finish();
                 double deleteMemoryUsage = (double) deleteMetrics.get("used_memory");
                 double deleteCpuUsage = (double) deleteMetrics.get("cpu_load");
 
@@ -155,6 +159,9 @@ public class CategoryTest {
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        metrics.writeTo("categoryMetrics.prom", BASE_URL);
+        client.close();
     }
 
     public static void main(String[] args) {
@@ -162,7 +169,9 @@ public class CategoryTest {
         int n = 1000;
 
         long startTime = System.nanoTime(); // Get the start time
-        test.performanceTest(n);
+        try (JfrRecording recording = JfrRecording.startIfEnabled("category")) {
+            test.performanceTest(n);
+        }
         long endTime = System.nanoTime(); // Get the end time
     
         // Calculate the time taken in seconds
@@ -0,0 +1,166 @@
+package PerformanceTesting;
+
+import support.HarnessClient;
+import support.HarnessResponse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client-side overhead per request of every {@link HarnessClient}. The clients are pointed at an
+ * in-process stub server that answers every request at once with a fixed todo, so nearly all of
+ * the measured time is the client's: building the request, serializing the body, the exchange
+ * over loopback and reading the response. Subtracting a client's overhead from latencies measured
+ * through it against the real server leaves the server's share.
+ */
+public class ClientCalibration {
+
+    private static final String[] CLIENTS = {"restassured", "lean"};
+    private static final int WARMUP = 2000;
+    private static final byte[] STUB_BODY = ("{\"id\":\"1\",\"title\":\"Title 1\",\"doneStatus\":\"false\"," +
+            "\"description\":\"Description for 1th object\"}").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Minimal HTTP/1.1 server on a free port, one thread per connection, keeping connections
+     * alive and answering every request with STUB_BODY. The JDK's HttpServer stalls under a
+     * keep-alive client on this JVM, which would be measured as client overhead.
+     */
+    private static class StubServer implements AutoCloseable {
+
+        private final ServerSocket socket;
+
+        StubServer() throws IOException {
+            socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "stub-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        String getBaseUrl() {
+            return "http://localhost:" + socket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket connection = socket.accept();
+                    Thread handler = new Thread(() -> serve(connection), "stub-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    return null;
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+
+        private static void serve(Socket connection) {
+            try (Socket s = connection) {
+                s.setTcpNoDelay(true);
+                InputStream in = new BufferedInputStream(s.getInputStream());
+                OutputStream out = new BufferedOutputStream(s.getOutputStream());
+                String requestLine;
+                while ((requestLine = readLine(in)) != null) {
+                    int contentLength = 0;
+                    String header;
+                    while ((header = readLine(in)) != null && !header.isEmpty()) {
+                        if (header.toLowerCase().startsWith("content-length:")) {
+                            contentLength = Integer.parseInt(header.substring(15).trim());
+                        }
+                    }
+                    in.readNBytes(contentLength);
+                    String status = requestLine.startsWith("POST") ? "201 Created" : "200 OK";
+                    out.write(("HTTP/1.1 " + status + "\r\nContent-Type: application/json\r\nLocation: todos/1\r\n" +
+                            "Content-Length: " + STUB_BODY.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                    out.write(STUB_BODY);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // Client closed the connection
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private long[] run(HarnessClient client, String method, int n) {
+        Map<String, Object> todoData = new HashMap<>();
+        todoData.put("title", "Title 1");
+        todoData.put("description", "Description for 1th object");
+        Map<String, Object> body = method.equals("GET") ? null : todoData;
+        String path = method.equals("GET") ? "/todos/1" : "/todos";
+
+        long[] nanos = new long[n];
+        for (int i = 0; i < n; i++) {
+            long startTime = System.nanoTime();
+            HarnessResponse response = client.send(method, path, body);
+            if (method.equals("POST")) {
+                response.getId();
+            }
+            nanos[i] = System.nanoTime() - startTime;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    public void performanceTest(int n) {
+        try (FileWriter writer = new FileWriter("clientCalibration.csv")) {
+            writer.write("#client, method, requests, mean_overhead_us, p50_overhead_us, p99_overhead_us\n");
+
+            try (StubServer stub = new StubServer()) {
+                String baseUrl = stub.getBaseUrl();
+                for (String name : CLIENTS) {
+                    try (HarnessClient client = HarnessClient.create(name, baseUrl)) {
+                        for (String method : new String[]{"POST", "GET"}) {
+                            run(client, method, WARMUP);
+                            long[] nanos = run(client, method, n);
+                            double mean = Arrays.stream(nanos).average().orElse(0) / 1000.0;
+                            double p50 = nanos[n / 2] / 1000.0;
+                            double p99 = nanos[(int) (n * 0.99)] / 1000.0;
+
+                            writer.write(name + ", " + method + ", " + n + ", " + mean + ", " + p50 + ", " + p99 + "\n");
+                            System.out.println(name + " " + method + ": " + String.format("%.0f us", mean) +
+                                    " mean, " + String.format("%.0f us", p50) + " p50, " + String.format("%.0f us", p99) + " p99");
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        ClientCalibration test = new ClientCalibration();
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+        Benchmark.run("client calibration with " + n + " requests per client", () -> test.performanceTest(n));
+    }
+}
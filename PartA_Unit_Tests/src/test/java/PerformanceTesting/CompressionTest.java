@@ -0,0 +1,128 @@
+package PerformanceTesting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Bytes on the wire and latency for collection responses with and without Accept-Encoding.
+ * GET /todos (JSON) and GET /categories (XML) are fetched with "identity" and with "gzip, deflate"
+ * while the collections grow. HttpURLConnection is used instead of RestAssured because it does not
+ * transparently decompress, so the counted bytes are what the server actually sent. The gzip size
+ * of the decoded body is reported as well, which is what the server would send if it compressed
+ * bodies above the threshold (-Dperf.compression.threshold, default 1024 bytes).
+ */
+public class CompressionTest {
+
+    private static final int REPEATS = 20;
+    private static final int THRESHOLD = Integer.getInteger("perf.compression.threshold", 1024);
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decode(byte[] body, String contentEncoding) throws IOException {
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            return readAll(new GZIPInputStream(new ByteArrayInputStream(body)));
+        }
+        if ("deflate".equalsIgnoreCase(contentEncoding)) {
+            return readAll(new InflaterInputStream(new ByteArrayInputStream(body)));
+        }
+        return body;
+    }
+
+    private static int gzipSize(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+
+    private void measure(FileWriter writer, int collectionSize, String path, String accept, String acceptEncoding) throws IOException {
+        long totalNanos = 0;
+        int wireBytes = 0;
+        byte[] decoded = new byte[0];
+        String contentEncoding = null;
+
+        for (int i = 0; i < REPEATS; i++) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(Benchmark.BASE_URL + path).openConnection();
+            connection.setRequestMethod("GET");
+            connection.setRequestProperty("Accept", accept);
+            connection.setRequestProperty("Accept-Encoding", acceptEncoding);
+
+            long startTime = System.nanoTime();
+            connection.getResponseCode();
+            byte[] body;
+            try (InputStream in = connection.getInputStream()) {
+                body = readAll(in);
+            }
+            totalNanos += System.nanoTime() - startTime;
+
+            contentEncoding = connection.getContentEncoding();
+            wireBytes = body.length;
+            decoded = decode(body, contentEncoding);
+        }
+
+        int potentialBytes = decoded.length >= THRESHOLD ? gzipSize(decoded) : decoded.length;
+        double meanLatencyMicros = totalNanos / 1000.0 / REPEATS;
+
+        writer.write(collectionSize + ", " + path + ", " + accept + ", " + acceptEncoding.replace(", ", "+") + ", " +
+                (contentEncoding == null ? "identity" : contentEncoding) + ", " + wireBytes + ", " +
+                decoded.length + ", " + potentialBytes + ", " + meanLatencyMicros + "\n");
+        System.out.println(collectionSize + " " + path + " (" + accept + ", " + acceptEncoding + "): " +
+                wireBytes + " bytes on wire, " + potentialBytes + " if gzipped, " +
+                String.format("%.0f us", meanLatencyMicros));
+    }
+
+    public void performanceTest(int maxSize) {
+        List<Integer> todoIds = new ArrayList<>();
+        List<Integer> categoryIds = new ArrayList<>();
+
+        try (FileWriter writer = new FileWriter("compression.csv")) {
+            writer.write("#collection_size, path, accept, accept_encoding, content_encoding, wire_bytes, decoded_bytes, gzip_bytes_above_threshold, mean_latency_us\n");
+
+            for (int size = 10; size <= maxSize; size *= 10) {
+                while (todoIds.size() < size) {
+                    int i = todoIds.size() + 1;
+                    todoIds.add(fixtures.createId("/todos", "Title " + i, "Description for " + i + "th object"));
+                    categoryIds.add(fixtures.createId("/categories", "Title " + i, "Description for " + i + "th object"));
+                }
+
+                measure(writer, size, "/todos", "application/json", "identity");
+                measure(writer, size, "/todos", "application/json", "gzip, deflate");
+                measure(writer, size, "/categories", "application/xml", "identity");
+                measure(writer, size, "/categories", "application/xml", "gzip, deflate");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        fixtures.deleteAll("/todos", todoIds);
+        fixtures.deleteAll("/categories", categoryIds);
+    }
+
+    public static void main(String[] args) {
+        CompressionTest test = new CompressionTest();
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        Benchmark.run("compression run up to " + maxSize + " objects", () -> test.performanceTest(maxSize));
+    }
+}
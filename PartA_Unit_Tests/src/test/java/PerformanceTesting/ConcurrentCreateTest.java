@@ -0,0 +1,88 @@
+package PerformanceTesting;
+
+import support.HarnessResponse;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Create throughput at 1 to 64 concurrent client threads for todos, projects and categories.
+ * Every server-assigned id is collected so each step also reports duplicate ids and how often a
+ * thread got an id lower than the previous one it received, which is what cursor-style ordering
+ * by id relies on.
+ */
+public class ConcurrentCreateTest {
+
+    private static final String[] ENDPOINTS = {"/todos", "/projects", "/categories"};
+    private static final int MAX_THREADS = 64;
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+
+    private void runStep(FileWriter writer, String endpoint, int threadCount, int createsPerThread) throws IOException {
+        ConcurrentLinkedQueue<Integer> ids = new ConcurrentLinkedQueue<>();
+        LongAdder outOfOrder = new LongAdder();
+        LongAdder failures = new LongAdder();
+        AtomicInteger nextThread = new AtomicInteger();
+
+        LoadDriver driver = new LoadDriver();
+        driver.add("creator", threadCount, () -> {
+            int threadIndex = nextThread.getAndIncrement();
+            int[] lastId = {-1};
+            return i -> {
+                HarnessResponse response = fixtures.create(endpoint, "Title " + threadIndex + "-" + i,
+                        "Description for " + i + "th object");
+                if (response.getStatusCode() != 201) {
+                    failures.increment();
+                    return;
+                }
+                int id = response.getId();
+                if (id < lastId[0]) {
+                    outOfOrder.increment();
+                }
+                lastId[0] = id;
+                ids.add(id);
+            };
+        });
+        double seconds = driver.runIterations(createsPerThread);
+
+        List<Integer> created = new ArrayList<>(ids);
+        Set<Integer> unique = new HashSet<>(created);
+        int duplicates = created.size() - unique.size();
+        double throughput = created.size() / seconds;
+
+        writer.write(endpoint + ", " + threadCount + ", " + created.size() + ", " + throughput + ", " +
+                duplicates + ", " + outOfOrder.sum() + ", " + failures.sum() + ", " + driver.getErrors() + "\n");
+        System.out.println(endpoint + " with " + threadCount + " threads: " +
+                String.format("%.0f creates/s", throughput) + ", " + duplicates + " duplicate ids");
+
+        fixtures.deleteAll(endpoint, unique);
+    }
+
+    public void performanceTest(int createsPerStep) {
+        try (FileWriter writer = new FileWriter("concurrentCreate.csv")) {
+            writer.write("#endpoint, threads, created, creates_per_second, duplicate_ids, out_of_order_ids, failed_creates, errors\n");
+
+            for (String endpoint : ENDPOINTS) {
+                for (int threadCount = 1; threadCount <= MAX_THREADS; threadCount *= 2) {
+                    runStep(writer, endpoint, threadCount, Math.max(1, createsPerStep / threadCount));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        ConcurrentCreateTest test = new ConcurrentCreateTest();
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+
+        Benchmark.run("concurrent creates of " + n + " objects per step", () -> test.performanceTest(n));
+    }
+}
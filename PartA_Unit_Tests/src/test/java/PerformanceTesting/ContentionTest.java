@@ -0,0 +1,93 @@
+package PerformanceTesting;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mixed read/write contention benchmark. Reader threads hammer GET /todos/{id} while a fixed
+ * number of writer threads keep updating todos through POST /todos/{id}. The reader count is
+ * stepped from 1 up to the number of cores so the CSV shows whether read throughput keeps
+ * scaling while writes are running, or flattens out because reads queue behind the writers.
+ */
+public class ContentionTest {
+
+    private static final int POOL_SIZE = 200;
+    private static final int WRITERS = 2;
+    private static final long STEP_MILLIS = 5_000;
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+
+    private void runStep(FileWriter writer, List<Integer> todoIds, int readers, int writers) throws IOException {
+        LongAdder reads = new LongAdder();
+        LongAdder readNanos = new LongAdder();
+        LongAdder writes = new LongAdder();
+        LongAdder writeNanos = new LongAdder();
+
+        LoadDriver driver = new LoadDriver();
+        driver.add("reader", readers, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return i -> {
+                int todoId = todoIds.get(random.nextInt(todoIds.size()));
+                long startTime = System.nanoTime();
+                fixtures.get("/todos", todoId);
+                readNanos.add(System.nanoTime() - startTime);
+                reads.increment();
+            };
+        });
+        driver.add("writer", writers, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return i -> {
+                int todoId = todoIds.get(random.nextInt(todoIds.size()));
+                long startTime = System.nanoTime();
+                fixtures.update("/todos", todoId, "Updated Title " + i, "Updated Description " + i);
+                writeNanos.add(System.nanoTime() - startTime);
+                writes.increment();
+            };
+        });
+        double seconds = driver.runFor(STEP_MILLIS);
+
+        long readCount = reads.sum();
+        long writeCount = writes.sum();
+        double readThroughput = readCount / seconds;
+        double writeThroughput = writeCount / seconds;
+        double meanReadMicros = readCount == 0 ? 0 : readNanos.sum() / 1000.0 / readCount;
+        double meanWriteMicros = writeCount == 0 ? 0 : writeNanos.sum() / 1000.0 / writeCount;
+
+        writer.write(readers + ", " + writers + ", " + readThroughput + ", " + writeThroughput + ", " +
+                meanReadMicros + ", " + meanWriteMicros + ", " + (readThroughput / readers) + ", " + driver.getErrors() + "\n");
+        System.out.println(readers + " readers / " + writers + " writers: " +
+                String.format("%.0f reads/s, %.0f writes/s", readThroughput, writeThroughput) + ", " + driver.getErrors() + " errors");
+    }
+
+    public void performanceTest(int maxReaders) {
+        List<Integer> todoIds = new ArrayList<>();
+        for (int i = 1; i <= POOL_SIZE; i++) {
+            todoIds.add(fixtures.createId("/todos", "Title " + i, "Description for " + i + "th object"));
+        }
+
+        try (FileWriter writer = new FileWriter("todoContention.csv")) {
+            writer.write("#readers, writers, read_throughput, write_throughput, mean_read_latency_us, mean_write_latency_us, read_throughput_per_reader, errors\n");
+
+            // Baseline with no writers, then the same reader counts with writers running
+            runStep(writer, todoIds, 1, 0);
+            for (int readers = 1; readers <= maxReaders; readers *= 2) {
+                runStep(writer, todoIds, readers, WRITERS);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        fixtures.deleteAll("/todos", todoIds);
+    }
+
+    public static void main(String[] args) {
+        ContentionTest test = new ContentionTest();
+        int maxReaders = Runtime.getRuntime().availableProcessors();
+
+        Benchmark.run("contention run up to " + maxReaders + " readers", () -> test.performanceTest(maxReaders));
+    }
+}
@@ -0,0 +1,109 @@
+package PerformanceTesting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Durations of single tests and scenarios over past runs, kept in testDurations.csv in the
+ * module directory so that mvn clean does not erase them. Keys are "Class#method()" for JUnit
+ * tests and "features/Name.feature:line" for scenarios; the class or feature file is the unit a
+ * test is scheduled with. The stored value is exponentially smoothed with a weight of 1/2: a new
+ * duration is averaged with it, so a run counts half as much with every later run and one slow
+ * run does not reorder the next plan on its own.
+ */
+public final class DurationHistory {
+
+    public static final Path DEFAULT_FILE = Paths.get("testDurations.csv");
+    private static final String HEADER = "#test, smoothed_ms";
+
+    private final Map<String, Double> millis;
+
+    private DurationHistory(Map<String, Double> millis) {
+        this.millis = millis;
+    }
+
+    public static DurationHistory load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new DurationHistory(new TreeMap<>());
+        }
+        return new DurationHistory(parse(Files.readString(file)));
+    }
+
+    /**
+     * Smooths the observed durations into the file. Forked JVMs finish at the same time, so the
+     * file is locked while it is read and rewritten.
+     */
+    public static void merge(Path file, Map<String, Double> observed) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (channel.read(buffer) > 0) {
+                content.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            Map<String, Double> millis = parse(content.toString(StandardCharsets.UTF_8));
+            observed.forEach((key, value) -> millis.merge(key, value, (previous, latest) -> (previous + latest) / 2));
+
+            StringBuilder out = new StringBuilder(HEADER).append('\n');
+            millis.forEach((key, value) -> out.append(key).append(", ").append(String.format(Locale.ROOT, "%.1f", value)).append('\n'));
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8)), 0);
+        }
+    }
+
+    // The duration follows the last comma, parameter lists in keys may contain commas too
+    private static Map<String, Double> parse(String content) {
+        Map<String, Double> millis = new TreeMap<>();
+        for (String line : content.split("\n")) {
+            int comma = line.lastIndexOf(',');
+            if (line.startsWith("#") || comma < 0) {
+                continue;
+            }
+            millis.put(line.substring(0, comma), Double.parseDouble(line.substring(comma + 1).trim()));
+        }
+        return millis;
+    }
+
+    /**
+     * The class ("TodoTest") or feature file ("features/DeleteTodo.feature") a test belongs to.
+     */
+    public static String unitOf(String key) {
+        int hash = key.indexOf('#');
+        if (hash >= 0) {
+            return key.substring(0, hash);
+        }
+        int colon = key.lastIndexOf(':');
+        return colon >= 0 ? key.substring(0, colon) : key;
+    }
+
+    /**
+     * Summed duration of the unit's tests, or -1 when none of them has run before.
+     */
+    public double getUnitMillis(String unit) {
+        double total = 0;
+        boolean known = false;
+        for (Map.Entry<String, Double> entry : millis.entrySet()) {
+            if (unitOf(entry.getKey()).equals(unit)) {
+                total += entry.getValue();
+                known = true;
+            }
+        }
+        return known ? total : -1;
+    }
+
+    public boolean isEmpty() {
+        return millis.isEmpty();
+    }
+}
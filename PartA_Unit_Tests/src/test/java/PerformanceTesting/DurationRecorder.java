@@ -0,0 +1,69 @@
+package PerformanceTesting;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClasspathResourceSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how long every JUnit test and Cucumber scenario takes into the
+ * {@link DurationHistory}, which {@link ShardedRun} packs forks with. Registered with the JUnit
+ * Platform through META-INF/services, so every run records, surefire's as well as the forks'.
+ */
+public class DurationRecorder implements TestExecutionListener {
+
+    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    private final Map<String, Double> observed = new ConcurrentHashMap<>();
+
+    // "TodoTest#testCreateTodo()" or "features/DeleteTodo.feature:12", null for other sources
+    static String keyOf(TestIdentifier test) {
+        TestSource source = test.getSource().orElse(null);
+        if (source instanceof MethodSource) {
+            MethodSource method = (MethodSource) source;
+            return method.getClassName() + "#" + method.getMethodName() + "(" + method.getMethodParameterTypes() + ")";
+        }
+        if (source instanceof ClasspathResourceSource) {
+            ClasspathResourceSource resource = (ClasspathResourceSource) source;
+            return resource.getPosition()
+                    .map(position -> resource.getClasspathResourceName() + ":" + position.getLine())
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier test) {
+        if (test.isTest()) {
+            startTimes.put(test.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier test, TestExecutionResult result) {
+        Long startTime = startTimes.remove(test.getUniqueId());
+        String key = keyOf(test);
+        if (startTime != null && key != null) {
+            observed.put(key, (System.nanoTime() - startTime) / 1_000_000.0);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (observed.isEmpty()) {
+            return;
+        }
+        try {
+            DurationHistory.merge(DurationHistory.DEFAULT_FILE, observed);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        observed.clear();
+    }
+}
@@ -0,0 +1,129 @@
+package PerformanceTesting;
+
+import io.restassured.response.Response;
+import static io.restassured.RestAssured.given;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency of filtered collection GETs as todos, projects and categories grow. Filtering is done by
+ * query parameters (the same exact-match title filter testFetchTodoWithNonExistentFilter uses), so
+ * a server that scans the whole collection per query shows latency growing with the collection
+ * while a server with an index keeps it proportional to the number of matches. Each size is
+ * measured for a filter that matches a single entity and for one that matches nothing.
+ * Every tenth todo is done and every tenth project is active, so the boolean status filters
+ * (doneStatus, active) are measured at roughly 10% and 90% selectivity, and ANDed with a title.
+ */
+public class FilterLatencyTest {
+
+    private static final String[] ENDPOINTS = {"/todos", "/projects", "/categories"};
+    private static final int REPEATS = 20;
+    private static final int STATUS_EVERY = 10;
+
+    // Boolean field each collection is filtered on, categories have none
+    private static final Map<String, String> STATUS_FIELDS = new HashMap<>();
+
+    static {
+        STATUS_FIELDS.put("/todos", "doneStatus");
+        STATUS_FIELDS.put("/projects", "active");
+    }
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+
+    private int create(String endpoint, int i) {
+        Map<String, Object> data = BenchmarkFixtures.fields("Title " + i, "Description for " + i + "th object");
+        String statusField = STATUS_FIELDS.get(endpoint);
+        if (statusField != null) {
+            data.put(statusField, i % STATUS_EVERY == 0);
+        }
+        return fixtures.createId(endpoint, data);
+    }
+
+    private void measure(FileWriter writer, int collectionSize, String endpoint, String filter, Map<String, String> query) throws IOException {
+        long totalNanos = 0;
+        int matches = 0;
+        for (int i = 0; i < REPEATS; i++) {
+            long startTime = System.nanoTime();
+            Response response = given()
+                    .baseUri(Benchmark.BASE_URL)
+                    .queryParams(query)
+                    .when()
+                    .get(endpoint);
+            totalNanos += System.nanoTime() - startTime;
+            List<?> results = response.jsonPath().getList(endpoint.substring(1));
+            matches = results == null ? 0 : results.size();
+        }
+        double meanLatencyMillis = totalNanos / 1_000_000.0 / REPEATS;
+
+        writer.write(collectionSize + ", " + endpoint + ", " + filter + ", " + matches + ", " + meanLatencyMillis + "\n");
+        System.out.println(collectionSize + " " + endpoint + " " + filter + ": " + matches + " matches, " +
+                String.format("%.2f ms", meanLatencyMillis));
+    }
+
+    private void measureSize(FileWriter writer, int collectionSize, String endpoint) throws IOException {
+        Map<String, String> hit = new HashMap<>();
+        hit.put("title", "Title " + (collectionSize / 2));
+        measure(writer, collectionSize, endpoint, "title_hit", hit);
+
+        Map<String, String> miss = new HashMap<>();
+        miss.put("title", "non-existent-filter");
+        measure(writer, collectionSize, endpoint, "title_miss", miss);
+
+        String statusField = STATUS_FIELDS.get(endpoint);
+        if (statusField == null) {
+            return;
+        }
+        Map<String, String> statusTrue = new HashMap<>();
+        statusTrue.put(statusField, "true");
+        measure(writer, collectionSize, endpoint, statusField + "_true", statusTrue);
+
+        Map<String, String> statusFalse = new HashMap<>();
+        statusFalse.put(statusField, "false");
+        measure(writer, collectionSize, endpoint, statusField + "_false", statusFalse);
+
+        Map<String, String> statusAndTitle = new HashMap<>();
+        statusAndTitle.put(statusField, "true");
+        statusAndTitle.put("title", "Title " + STATUS_EVERY);
+        measure(writer, collectionSize, endpoint, statusField + "_true_and_title", statusAndTitle);
+    }
+
+    public void performanceTest(int maxSize) {
+        Map<String, List<Integer>> created = new HashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            created.put(endpoint, new ArrayList<>());
+        }
+
+        try (FileWriter writer = new FileWriter("filterLatency.csv")) {
+            writer.write("#collection_size, endpoint, filter, matches, mean_latency_ms\n");
+
+            for (int size = 10; size <= maxSize; size *= 10) {
+                for (String endpoint : ENDPOINTS) {
+                    List<Integer> ids = created.get(endpoint);
+                    while (ids.size() < size) {
+                        int i = ids.size() + 1;
+                        ids.add(create(endpoint, i));
+                    }
+                    measureSize(writer, size, endpoint);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        for (String endpoint : ENDPOINTS) {
+            fixtures.deleteAll(endpoint, created.get(endpoint));
+        }
+    }
+
+    public static void main(String[] args) {
+        FilterLatencyTest test = new FilterLatencyTest();
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+        Benchmark.run("filter latency run up to " + maxSize + " objects", () -> test.performanceTest(maxSize));
+    }
+}
@@ -0,0 +1,100 @@
+package PerformanceTesting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+import io.restassured.path.json.JsonPath;
+import support.IdExtractor;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cost of getting the id out of a POST /todos response, per create. "gpath" is what
+ * {@code response.jsonPath().getInt("id")} does (decode the body and parse it into a Groovy
+ * structure), "jackson_tree" parses it into a Jackson tree, "streaming" is
+ * {@link IdExtractor#fromJson(byte[])} over the body bytes and "location" is
+ * {@link IdExtractor#fromLocation(String)} on the Location header. Each is timed on one thread
+ * after warming up, with the bytes it allocates per extraction.
+ */
+public class IdExtractorBenchmark {
+
+    private static final String[] METHODS = {"gpath", "jackson_tree", "streaming", "location"};
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // As the server answers POST /todos
+    private static final byte[] BODY = ("{\"id\":\"1234\",\"title\":\"Title 1234\",\"doneStatus\":\"false\"," +
+            "\"description\":\"Description for 1234th object\"}").getBytes(StandardCharsets.UTF_8);
+    private static final String LOCATION = "todos/1234";
+
+    // Keeps the JIT from discarding the work
+    private long sink;
+
+    private void run(String method, int n) throws IOException {
+        switch (method) {
+            case "gpath":
+                for (int i = 0; i < n; i++) {
+                    sink += JsonPath.from(new String(BODY, StandardCharsets.UTF_8)).getInt("id");
+                }
+                break;
+            case "jackson_tree":
+                for (int i = 0; i < n; i++) {
+                    sink += MAPPER.readTree(BODY).get("id").asInt();
+                }
+                break;
+            case "streaming":
+                for (int i = 0; i < n; i++) {
+                    sink += IdExtractor.fromJson(BODY);
+                }
+                break;
+            default:
+                for (int i = 0; i < n; i++) {
+                    sink += IdExtractor.fromLocation(LOCATION);
+                }
+        }
+    }
+
+    private void measure(FileWriter writer, String method, int n) throws IOException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // GPath is far slower than the rest, give it fewer iterations for the same wall time
+        int iterations = method.equals("gpath") ? Math.max(1, n / 1000) : n;
+        for (int round = 0; round < 5; round++) {
+            run(method, iterations);
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        run(method, iterations);
+        long elapsed = System.nanoTime() - startTime;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        double nanosPerId = (double) elapsed / iterations;
+        double bytesPerId = (double) allocated / iterations;
+        writer.write(method + ", " + iterations + ", " + nanosPerId + ", " + bytesPerId + "\n");
+        System.out.println(method + ": " + String.format("%.0f ns", nanosPerId) + " and " +
+                String.format("%.0f", bytesPerId) + " bytes allocated per id");
+    }
+
+    public void performanceTest(int n) {
+        try (FileWriter writer = new FileWriter("idExtraction.csv")) {
+            writer.write("#method, extractions, ns_per_id, bytes_allocated_per_id\n");
+
+            for (String method : METHODS) {
+                measure(writer, method, n);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        IdExtractorBenchmark test = new IdExtractorBenchmark();
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Benchmark.run("id extraction benchmark", () -> test.performanceTest(n));
+        // Printed so the JIT cannot drop the work that fed it
+        System.out.println("Sink: " + test.sink);
+    }
+}
@@ -0,0 +1,120 @@
+package PerformanceTesting;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Flight Recorder recording around a performance run. Start it with -Dperf.jfr=true; on close the
+ * recording is dumped to {@code <name>.jfr} and the RequestPhase events in it are summarized into
+ * {@code <name>JfrSummary.txt}, listing for every endpoint where its time went, largest first.
+ * The "profile" settings are used so the .jfr file also has the JVM's own samples for JMC.
+ */
+public class JfrRecording implements AutoCloseable {
+
+    private final Recording recording;
+    private final String name;
+
+    private JfrRecording(String name) throws IOException, ParseException {
+        this.name = name;
+        this.recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.enable(RequestPhaseEvent.class);
+        recording.setName(name);
+        recording.start();
+    }
+
+    /**
+     * Returns a started recording when -Dperf.jfr=true is set, null otherwise. A null resource is
+     * skipped by try-with-resources, so callers need no extra check.
+     */
+    public static JfrRecording startIfEnabled(String name) {
+        if (!Boolean.getBoolean("perf.jfr")) {
+            return null;
+        }
+        try {
+            return new JfrRecording(name);
+        } catch (IOException | ParseException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        Path file = Paths.get(name + ".jfr");
+        try {
+            recording.stop();
+            recording.dump(file);
+            try (FileWriter writer = new FileWriter(name + "JfrSummary.txt")) {
+                summarize(file, writer);
+            }
+            System.out.println("JFR recording written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            recording.close();
+        }
+    }
+
+    private static class PhaseTotal {
+        final String phase;
+        long count;
+        long nanos;
+        long maxNanos;
+
+        PhaseTotal(String phase) {
+            this.phase = phase;
+        }
+    }
+
+    public static void summarize(Path file, Writer writer) throws IOException {
+        Map<String, Map<String, PhaseTotal>> byEndpoint = new TreeMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (!event.getEventType().getName().equals("PerformanceTesting.RequestPhase")) {
+                continue;
+            }
+            String endpoint = event.getString("endpoint");
+            String phase = event.getString("phase");
+            long nanos = event.getDuration().toNanos();
+
+            PhaseTotal total = byEndpoint.computeIfAbsent(endpoint, key -> new TreeMap<>())
+                    .computeIfAbsent(phase, PhaseTotal::new);
+            total.count++;
+            total.nanos += nanos;
+            total.maxNanos = Math.max(total.maxNanos, nanos);
+        }
+
+        for (Map.Entry<String, Map<String, PhaseTotal>> entry : byEndpoint.entrySet()) {
+            List<PhaseTotal> phases = new ArrayList<>(entry.getValue().values());
+            phases.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+            long endpointNanos = phases.stream().mapToLong(p -> p.nanos).sum();
+
+            writer.write(entry.getKey() + "\n");
+            for (PhaseTotal p : phases) {
+                writer.write(String.format("  %-16s %8d events %10.1f ms total %6.1f%% %8.1f us mean %8.1f us max%n",
+                        p.phase, p.count, p.nanos / 1_000_000.0, 100.0 * p.nanos / Math.max(1, endpointNanos),
+                        p.nanos / 1000.0 / p.count, p.maxNanos / 1000.0));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Summarize an existing recording: JfrRecording todo.jfr
+        Writer out = new OutputStreamWriter(System.out);
+        summarize(Paths.get(args[0]), out);
+        out.flush();
+    }
+}
@@ -0,0 +1,117 @@
+package PerformanceTesting;
+
+import io.restassured.path.json.JsonPath;
+import support.HarnessResponse;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks that project relationship reads are consistent while links are being added and removed.
+ * GET /projects/{id}/tasks embeds every linked todo together with its own "tasksof" list, so a
+ * single response can be checked on its own: any todo listed under the project must point back at
+ * the project. A response that breaks this saw a half-applied link and is counted as torn.
+ * Read latency is recorded with and without link churn to show whether readers wait on writers.
+ */
+public class LinkConsistencyTest {
+
+    private static final int LINKED_TODOS = 50;
+    private static final int READERS = 2;
+    private static final int WRITERS = 2;
+    private static final long PHASE_MILLIS = 5_000;
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+
+    private boolean isTorn(HarnessResponse response, int projectId) {
+        List<Map<String, Object>> todos = JsonPath.from(response.asString()).getList("todos");
+        if (todos == null) {
+            return false;
+        }
+        String expected = String.valueOf(projectId);
+        for (Map<String, Object> todo : todos) {
+            Object tasksof = todo.get("tasksof");
+            if (!(tasksof instanceof List)) {
+                return true;
+            }
+            boolean found = false;
+            for (Object link : (List<?>) tasksof) {
+                if (link instanceof Map && expected.equals(String.valueOf(((Map<?, ?>) link).get("id")))) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runPhase(FileWriter writer, String phase, int projectId, List<Integer> todoIds, int writers) throws IOException {
+        LongAdder reads = new LongAdder();
+        LongAdder tornReads = new LongAdder();
+        LongAdder readNanos = new LongAdder();
+        LongAdder linkChanges = new LongAdder();
+
+        LoadDriver driver = new LoadDriver();
+        driver.add("reader", READERS, () -> i -> {
+            long startTime = System.nanoTime();
+            HarnessResponse response = fixtures.get("/projects/" + projectId + "/tasks");
+            readNanos.add(System.nanoTime() - startTime);
+            reads.increment();
+            if (isTorn(response, projectId)) {
+                tornReads.increment();
+            }
+        });
+        driver.add("writer", writers, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return i -> {
+                int todoId = todoIds.get(random.nextInt(todoIds.size()));
+                fixtures.unlink("/projects", projectId, "tasks", todoId);
+                linkChanges.increment();
+                fixtures.link("/projects", projectId, "tasks", todoId);
+                linkChanges.increment();
+            };
+        });
+        driver.runFor(PHASE_MILLIS);
+
+        long readCount = reads.sum();
+        double meanReadMicros = readCount == 0 ? 0 : readNanos.sum() / 1000.0 / readCount;
+        writer.write(phase + ", " + readCount + ", " + tornReads.sum() + ", " + linkChanges.sum() + ", " + meanReadMicros + ", " + driver.getErrors() + "\n");
+        System.out.println(phase + ": " + readCount + " reads, " + tornReads.sum() + " torn, " +
+                linkChanges.sum() + " link changes, " + driver.getErrors() + " errors");
+    }
+
+    public void performanceTest() {
+        int projectId = fixtures.createId("/projects", "Consistency Project", null);
+        List<Integer> todoIds = new ArrayList<>();
+        for (int i = 1; i <= LINKED_TODOS; i++) {
+            int todoId = fixtures.createId("/todos", "Title " + i, null);
+            fixtures.link("/projects", projectId, "tasks", todoId);
+            todoIds.add(todoId);
+        }
+
+        try (FileWriter writer = new FileWriter("projectLinkConsistency.csv")) {
+            writer.write("#phase, reads, torn_reads, link_changes, mean_read_latency_us, errors\n");
+
+            runPhase(writer, "no_churn", projectId, todoIds, 0);
+            runPhase(writer, "link_churn", projectId, todoIds, WRITERS);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        fixtures.deleteAll("/todos", todoIds);
+        fixtures.delete("/projects", projectId);
+    }
+
+    public static void main(String[] args) {
+        LinkConsistencyTest test = new LinkConsistencyTest();
+
+        Benchmark.run("link consistency run", test::performanceTest);
+    }
+}
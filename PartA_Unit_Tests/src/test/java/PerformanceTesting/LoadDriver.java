@@ -0,0 +1,131 @@
+package PerformanceTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop load from groups of client threads. Each group runs one operation in a loop on its
+ * own threads; the operation is built on the thread that runs it, so per-thread state (a random
+ * source, the ids a client created) lives in the closure. All threads are released together and
+ * run either for a fixed time or a fixed number of iterations. An operation that throws, e.g. on
+ * a connection reset under load, is counted in {@link #getErrors()} and the thread carries on.
+ */
+public class LoadDriver {
+
+    public interface Operation {
+        void run(int iteration);
+    }
+
+    private static class Group {
+        final String name;
+        final int threads;
+        final Supplier<Operation> operation;
+
+        Group(String name, int threads, Supplier<Operation> operation) {
+            this.name = name;
+            this.threads = threads;
+            this.operation = operation;
+        }
+    }
+
+    private final List<Group> groups = new ArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder errors = new LongAdder();
+    private CountDownLatch done;
+    private long startNanos;
+
+    public LoadDriver add(String name, int threads, Supplier<Operation> operation) {
+        groups.add(new Group(name, threads, operation));
+        return this;
+    }
+
+    /**
+     * Starts every thread; they run until {@link #stop()}.
+     */
+    public void start() {
+        start(Integer.MAX_VALUE);
+    }
+
+    private void start(int iterations) {
+        int threadCount = 0;
+        for (Group group : groups) {
+            threadCount += group.threads;
+        }
+        CountDownLatch startGate = new CountDownLatch(1);
+        done = new CountDownLatch(threadCount);
+        running.set(true);
+
+        for (Group group : groups) {
+            for (int t = 0; t < group.threads; t++) {
+                new Thread(() -> {
+                    try {
+                        Operation operation = group.operation.get();
+                        startGate.await();
+                        for (int i = 0; i < iterations && running.get(); i++) {
+                            try {
+                                operation.run(i);
+                            } catch (RuntimeException e) {
+                                errors.increment();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }, group.name + "-" + t).start();
+            }
+        }
+        startNanos = System.nanoTime();
+        startGate.countDown();
+    }
+
+    /**
+     * Stops the threads started by {@link #start()} and returns the seconds they ran.
+     */
+    public double stop() {
+        running.set(false);
+        return await();
+    }
+
+    private double await() {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the load threads", e);
+        }
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    /**
+     * Runs every thread for the given time and returns the seconds they actually ran.
+     */
+    public double runFor(long millis) {
+        start();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.set(false);
+            throw new RuntimeException("Interrupted while driving load", e);
+        }
+        return stop();
+    }
+
+    /**
+     * Runs the operation the given number of times on every thread and returns the seconds taken.
+     */
+    public double runIterations(int iterationsPerThread) {
+        start(iterationsPerThread);
+        return await();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
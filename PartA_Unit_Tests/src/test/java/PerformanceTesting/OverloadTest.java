@@ -0,0 +1,210 @@
+package PerformanceTesting;
+
+import io.restassured.response.Response;
+import static io.restassured.RestAssured.given;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop overload scenario for finding a safe operating point. Requests (GET /todos/{id} with
+ * one POST /todos/{id} update in every five) are issued at a fixed arrival rate that is stepped up
+ * each period, independent of how fast responses come back. Every step reports goodput and
+ * success latency separately from requests the server shed (503/429, with any Retry-After it
+ * sent), requests that failed without a response, and requests the harness itself could not
+ * dispatch because its own bounded queue was full, so harness saturation is not mistaken for
+ * server latency. The ramp is run a second time behind an {@link AdaptiveLimiter}; past saturation
+ * that run should hold goodput flat and refuse the excess up front instead of letting every
+ * request slow down.
+ */
+public class OverloadTest {
+
+    private static final int POOL_SIZE = 100;
+    private static final int WORKERS = 64;
+    private static final int QUEUE_CAPACITY = 256;
+    private static final long STEP_MILLIS = 5_000;
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+    private final RouteMetrics metrics = new RouteMetrics();
+    private final AdaptiveLimiter limiter = new AdaptiveLimiter(8, 1, WORKERS);
+
+    public OverloadTest() {
+        metrics.registerGauge("harness_concurrency_limit", "Current adaptive concurrency limit.", limiter::getLimit);
+        metrics.registerGauge("harness_concurrency_in_flight", "Requests currently holding a limiter permit.", limiter::getInFlight);
+        metrics.registerGauge("harness_concurrency_min_rtt_seconds", "No-load round trip time seen by the limiter.",
+                () -> limiter.getMinRttNanos() / 1_000_000_000.0);
+    }
+
+    // The hot path stays on RestAssured, RouteMetrics and the Retry-After check need the headers
+    private Response getTodo(int todoId) {
+        return given()
+                .baseUri(Benchmark.BASE_URL)
+                .pathParam("id", todoId)
+                .when()
+                .get("/todos/{id}");
+    }
+
+    private Response updateTodo(int todoId, String title, String description) {
+        return given()
+                .baseUri(Benchmark.BASE_URL)
+                .contentType("application/json")
+                .pathParam("id", todoId)
+                .body(BenchmarkFixtures.fields(title, description))
+                .when()
+                .post("/todos/{id}");
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private void runStep(FileWriter writer, List<Integer> todoIds, int offeredRate, AdaptiveLimiter limiter) throws IOException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKERS, WORKERS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+        ConcurrentLinkedQueue<Long> successNanos = new ConcurrentLinkedQueue<>();
+        LongAdder rejected = new LongAdder();
+        LongAdder retryAfterSeen = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder completed = new LongAdder();
+        long limited = 0;
+        long dropped = 0;
+        long sent = 0;
+
+        long intervalNanos = 1_000_000_000L / offeredRate;
+        long startTime = System.nanoTime();
+        long endTime = startTime + STEP_MILLIS * 1_000_000;
+        for (long next = startTime; next < endTime; next += intervalNanos) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean isWrite = sent % 5 == 4;
+            int todoId = todoIds.get(ThreadLocalRandom.current().nextInt(todoIds.size()));
+            String route = "/todos/{id}";
+            String method = isWrite ? "POST" : "GET";
+            // Latency counts from the intended send time so time spent queued is not hidden
+            long scheduled = next;
+            if (limiter != null && !limiter.tryAcquire()) {
+                limited++;
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    long requestStart = System.nanoTime();
+                    boolean shed = false;
+                    try {
+                        Response response = isWrite
+                                ? updateTodo(todoId, "Updated Title", "Updated Description")
+                                : getTodo(todoId);
+                        long elapsed = System.nanoTime() - scheduled;
+                        metrics.record(method, route, response, elapsed);
+                        int status = response.getStatusCode();
+                        if (RouteMetrics.isRejection(status)) {
+                            shed = true;
+                            rejected.increment();
+                            if (response.getHeader("Retry-After") != null) {
+                                retryAfterSeen.increment();
+                            }
+                        } else if (status >= 400) {
+                            errors.increment();
+                        } else {
+                            successNanos.add(elapsed);
+                        }
+                    } catch (RuntimeException e) {
+                        shed = true;
+                        metrics.recordFailure(method, route, e);
+                        failed.increment();
+                    } finally {
+                        if (limiter != null) {
+                            limiter.release(System.nanoTime() - requestStart, shed);
+                        }
+                        completed.increment();
+                    }
+                });
+                sent++;
+            } catch (RejectedExecutionException e) {
+                if (limiter != null) {
+                    limiter.release(0, true);
+                }
+                dropped++;
+            }
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Queued requests are dropped; those in flight are left to finish on their own
+                // and no longer count towards this step
+                List<Runnable> neverRun = executor.shutdownNow();
+                if (limiter != null) {
+                    neverRun.forEach(request -> limiter.release(0, true));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during overload step", e);
+        }
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        long unfinished = sent - completed.sum();
+
+        long[] latencies = successNanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(latencies);
+        double goodput = latencies.length / seconds;
+
+        String mode = limiter == null ? "unlimited" : "adaptive";
+        int limit = limiter == null ? WORKERS + QUEUE_CAPACITY : limiter.getLimit();
+        writer.write(mode + ", " + offeredRate + ", " + (sent / seconds) + ", " + goodput + ", " + rejected.sum() + ", " +
+                retryAfterSeen.sum() + ", " + errors.sum() + ", " + failed.sum() + ", " + limited + ", " + dropped + ", " + unfinished + ", " + limit + ", " +
+                percentile(latencies, 0.5) / 1000 + ", " + percentile(latencies, 0.99) / 1000 + ", " +
+                percentile(latencies, 1.0) / 1000 + "\n");
+        System.out.println(mode + " " + offeredRate + " req/s offered: " + String.format("%.0f", goodput) + " req/s goodput, " +
+                rejected.sum() + " rejected, " + (errors.sum() + failed.sum()) + " errors, " + limited +
+                " over limit " + limit + ", " + dropped + " dropped by harness, " + unfinished + " unfinished, p99 " + percentile(latencies, 0.99) / 1000 + " us");
+    }
+
+    public void performanceTest(int startRate, int maxRate) {
+        List<Integer> todoIds = new ArrayList<>();
+        for (int i = 1; i <= POOL_SIZE; i++) {
+            todoIds.add(fixtures.createId("/todos", "Title " + i, "Description for " + i + "th object"));
+        }
+
+        try (FileWriter writer = new FileWriter("overload.csv")) {
+            writer.write("#mode, offered_rps, sent_rps, goodput_rps, rejected, rejected_with_retry_after, error_responses, failed_requests, over_limit, harness_dropped, unfinished, concurrency_limit, p50_us, p99_us, max_us\n");
+
+            // Same ramp twice: everything sent, then gated by the adaptive limit
+            for (int rate = startRate; rate <= maxRate; rate *= 2) {
+                runStep(writer, todoIds, rate, null);
+            }
+            for (int rate = startRate; rate <= maxRate; rate *= 2) {
+                runStep(writer, todoIds, rate, limiter);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        fixtures.deleteAll("/todos", todoIds);
+        metrics.writeTo("overloadMetrics.prom", Benchmark.BASE_URL);
+    }
+
+    public static void main(String[] args) {
+        OverloadTest test = new OverloadTest();
+        int startRate = args.length > 0 ? Integer.parseInt(args[0]) : 25;
+        int maxRate = args.length > 1 ? Integer.parseInt(args[1]) : 1600;
+
+        Benchmark.run("overload run up to " + maxRate + " req/s", () -> test.performanceTest(startRate, maxRate));
+    }
+}
@@ -0,0 +1,114 @@
+package PerformanceTesting;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * How quickly POST bodies are parsed and rejected as they grow. For each body size a valid JSON
+ * todo (long description), a JSON body that is malformed in its first bytes and an XML body that is
+ * malformed in its first bytes are sent to POST /todos. The bodies are built once as byte arrays
+ * and written straight to the connection so the harness itself does no per-request serialization.
+ * A parser that rejects early keeps malformed latency close to the cost of transferring the bytes,
+ * while one that buffers and tokenizes the whole body first grows with the size like the valid case.
+ */
+public class PayloadRejectionTest {
+
+    private static final int REPEATS = 20;
+
+    private static byte[] validJson(int size) {
+        String prefix = "{\"title\": \"Payload Todo\", \"description\": \"";
+        String suffix = "\"}";
+        return pad(prefix, suffix, size);
+    }
+
+    private static byte[] malformedJson(int size) {
+        // Same shape as testMalformedJSONPayload, followed by padding
+        return pad("{Invalid JSON ", "}", size);
+    }
+
+    private static byte[] malformedXml(int size) {
+        // Same shape as testMalformedXMLPayload, followed by padding
+        return pad("<Invalid XML <todo><description>", "</description></todo>", size);
+    }
+
+    private static byte[] pad(String prefix, String suffix, int size) {
+        byte[] head = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] tail = suffix.getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[Math.max(size, head.length + tail.length)];
+        Arrays.fill(body, (byte) 'x');
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(tail, 0, body, body.length - tail.length, tail.length);
+        return body;
+    }
+
+    private int post(byte[] body, String contentType, long[] elapsed) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(Benchmark.BASE_URL + "/todos").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        connection.setRequestProperty("Content-Type", contentType);
+
+        long startTime = System.nanoTime();
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in != null) {
+            try (InputStream response = in) {
+                response.readAllBytes();
+            }
+        }
+        elapsed[0] = System.nanoTime() - startTime;
+
+        String location = connection.getHeaderField("Location");
+        if (status == 201 && location != null) {
+            // The server answers with a relative Location such as "todos/12"
+            String path = location.startsWith("/") ? location : "/" + location;
+            HttpURLConnection delete = (HttpURLConnection) new URL(Benchmark.BASE_URL + path).openConnection();
+            delete.setRequestMethod("DELETE");
+            delete.getResponseCode();
+        }
+        return status;
+    }
+
+    private void measure(FileWriter writer, String kind, String contentType, byte[] body) throws IOException {
+        long[] elapsed = new long[1];
+        long totalNanos = 0;
+        int status = 0;
+        for (int i = 0; i < REPEATS; i++) {
+            status = post(body, contentType, elapsed);
+            totalNanos += elapsed[0];
+        }
+        double meanLatencyMicros = totalNanos / 1000.0 / REPEATS;
+        writer.write(kind + ", " + body.length + ", " + status + ", " + meanLatencyMicros + "\n");
+        System.out.println(kind + " " + body.length + " bytes: " + status + ", " + String.format("%.0f us", meanLatencyMicros));
+    }
+
+    public void performanceTest(int maxSize) {
+        try (FileWriter writer = new FileWriter("payloadRejection.csv")) {
+            writer.write("#payload, body_bytes, status, mean_latency_us\n");
+
+            for (int size = 64; size <= maxSize; size *= 4) {
+                measure(writer, "valid_json", "application/json", validJson(size));
+                measure(writer, "malformed_json", "application/json", malformedJson(size));
+                measure(writer, "malformed_xml", "application/xml", malformedXml(size));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        PayloadRejectionTest test = new PayloadRejectionTest();
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+
+        Benchmark.run("payload rejection run up to " + maxSize + " bytes", () -> test.performanceTest(maxSize));
+    }
+}
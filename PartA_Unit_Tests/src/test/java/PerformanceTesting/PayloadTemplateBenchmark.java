@@ -0,0 +1,94 @@
+package PerformanceTesting;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request body construction rate on one thread, without sending anything. "jackson_map" builds the
+ * body the way the performance tests used to (a HashMap of concatenated strings serialized by
+ * Jackson), "template" renders the same body from a {@link PayloadTemplate} into a reused buffer.
+ * Bodies per second bound the request rate one client thread can generate; bytes allocated per
+ * body (from the thread's allocation counter) show what each approach leaves for the GC.
+ */
+public class PayloadTemplateBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final PayloadTemplate CREATE_TODO = PayloadTemplate.compile(
+            "{\"title\":\"Title %d\",\"description\":\"Description for %dth object\"}");
+
+    // Keeps the JIT from discarding the work
+    private long sink;
+
+    private void jacksonMap(int n) throws JsonProcessingException {
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> todoData = new HashMap<>();
+            todoData.put("title", "Title " + i);
+            todoData.put("description", "Description for " + i + "th object");
+            sink += MAPPER.writeValueAsBytes(todoData).length;
+        }
+    }
+
+    private void template(int n) {
+        byte[] buffer = CREATE_TODO.newBuffer();
+        for (int i = 0; i < n; i++) {
+            sink += CREATE_TODO.render(i, buffer);
+        }
+    }
+
+    private void measure(FileWriter writer, String method, int n) throws IOException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up so both are measured compiled
+        for (int round = 0; round < 5; round++) {
+            run(method, n);
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        run(method, n);
+        long elapsed = System.nanoTime() - startTime;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        double perSecond = n / (elapsed / 1_000_000_000.0);
+        double bytesPerBody = (double) allocated / n;
+        writer.write(method + ", " + n + ", " + perSecond + ", " + bytesPerBody + "\n");
+        System.out.println(method + ": " + String.format("%.0f bodies/s", perSecond) + ", " +
+                String.format("%.1f", bytesPerBody) + " bytes allocated per body");
+    }
+
+    private void run(String method, int n) throws JsonProcessingException {
+        if (method.equals("jackson_map")) {
+            jacksonMap(n);
+        } else {
+            template(n);
+        }
+    }
+
+    public void performanceTest(int n) {
+        try (FileWriter writer = new FileWriter("payloadTemplate.csv")) {
+            writer.write("#method, bodies, bodies_per_second, bytes_allocated_per_body\n");
+
+            measure(writer, "jackson_map", n);
+            measure(writer, "template", n);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        PayloadTemplateBenchmark test = new PayloadTemplateBenchmark();
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Benchmark.run("payload template benchmark with " + n + " bodies", () -> test.performanceTest(n));
+        // Printed so the JIT cannot drop the work that fed it
+        System.out.println("Sink: " + test.sink);
+    }
+}
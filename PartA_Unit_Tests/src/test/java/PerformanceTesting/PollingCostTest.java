@@ -0,0 +1,77 @@
+package PerformanceTesting;
+
+import support.HarnessResponse;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What UI-style polling of GET /todos costs as the collection grows. For every collection size the
+ * mean latency and body size of one poll are measured, then projected to a fleet of clients that
+ * poll on a fixed interval (-Dperf.polling.clients, -Dperf.polling.interval.seconds) and compared
+ * with the traffic a change feed would need for the same number of changes per second
+ * (-Dperf.polling.changes.per.second), taking one created todo's JSON as the size of one event.
+ */
+public class PollingCostTest {
+
+    private static final int REPEATS = 20;
+    private static final int CLIENTS = Integer.getInteger("perf.polling.clients", 100);
+    private static final int INTERVAL_SECONDS = Integer.getInteger("perf.polling.interval.seconds", 5);
+    private static final int CHANGES_PER_SECOND = Integer.getInteger("perf.polling.changes.per.second", 10);
+
+    private final BenchmarkFixtures fixtures = new BenchmarkFixtures();
+
+    private void measure(FileWriter writer, int collectionSize, int eventBytes) throws IOException {
+        long totalNanos = 0;
+        int pollBytes = 0;
+        for (int i = 0; i < REPEATS; i++) {
+            long startTime = System.nanoTime();
+            HarnessResponse response = fixtures.get("/todos");
+            pollBytes = response.getBody().length;
+            totalNanos += System.nanoTime() - startTime;
+        }
+        double meanPollMillis = totalNanos / 1_000_000.0 / REPEATS;
+
+        double pollsPerSecond = (double) CLIENTS / INTERVAL_SECONDS;
+        double pollingBytesPerSecond = pollsPerSecond * pollBytes;
+        // Every change is pushed once to every connected client
+        double feedBytesPerSecond = (double) CHANGES_PER_SECOND * CLIENTS * eventBytes;
+
+        writer.write(collectionSize + ", " + meanPollMillis + ", " + pollBytes + ", " + pollsPerSecond + ", " +
+                (pollsPerSecond * meanPollMillis / 1000.0) + ", " + pollingBytesPerSecond + ", " + feedBytesPerSecond + "\n");
+        System.out.println(collectionSize + " todos: " + String.format("%.2f ms", meanPollMillis) + " and " +
+                pollBytes + " bytes per poll, " + String.format("%.0f", pollingBytesPerSecond) + " B/s polling vs " +
+                String.format("%.0f", feedBytesPerSecond) + " B/s change feed");
+    }
+
+    public void performanceTest(int maxSize) {
+        List<Integer> todoIds = new ArrayList<>();
+        try (FileWriter writer = new FileWriter("pollingCost.csv")) {
+            writer.write("#collection_size, mean_poll_latency_ms, poll_bytes, polls_per_second, server_busy_seconds_per_second, polling_bytes_per_second, change_feed_bytes_per_second\n");
+
+            int eventBytes = 0;
+            for (int size = 10; size <= maxSize; size *= 10) {
+                while (todoIds.size() < size) {
+                    int i = todoIds.size() + 1;
+                    HarnessResponse createResponse = fixtures.create("/todos", "Title " + i, "Description for " + i + "th object");
+                    eventBytes = createResponse.getBody().length;
+                    todoIds.add(createResponse.getId());
+                }
+                measure(writer, size, eventBytes);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        fixtures.deleteAll("/todos", todoIds);
+    }
+
+    public static void main(String[] args) {
+        PollingCostTest test = new PollingCostTest();
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+        Benchmark.run("polling cost run up to " + maxSize + " todos", () -> test.performanceTest(maxSize));
+    }
+}
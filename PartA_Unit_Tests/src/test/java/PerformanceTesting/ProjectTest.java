@@ -1,8 +1,8 @@
 package PerformanceTesting;
 
 import com.sun.management.OperatingSystemMXBean;
-import io.restassured.response.Response;
-import static io.restassured.RestAssured.given;
+import support.HarnessClient;
+import support.HarnessResponse;
 
 import java.lang.management.ManagementFactory;
 import java.util.HashMap;
@@ -16,41 +16,26 @@ public class ProjectTest {
 
     private static final String BASE_URL = "http://localhost:4567";
 
-    private Response createProject(String title, String description, boolean completed) {
-        Map<String, Object> projectData = new HashMap<>();
-        projectData.put("title", title);
-        projectData.put("description", description);
-        projectData.put("completed", completed);
-
-        return given()
-                .baseUri(BASE_URL)
-                .contentType("application/json")
-                .body(projectData)
-                .when()
-                .post("/projects");
+    private static final PayloadTemplate CREATE_PROJECT = PayloadTemplate.compile(
+            "{\"title\":\"Title %d\",\"description\":\"Description for %dth object\",\"completed\":false}");
+    private static final PayloadTemplate UPDATE_PROJECT = PayloadTemplate.compile(
+            "{\"title\":\"Updated Title for %dth object\",\"description\":\"Updated Description for %dth object\",\"completed\":true}");
+
+    private final RouteMetrics metrics = new RouteMetrics();
+    private final HarnessClient client = HarnessClient.forRun(BASE_URL);
+    private final byte[] createBuffer = CREATE_PROJECT.newBuffer();
+    private final byte[] updateBuffer = UPDATE_PROJECT.newBuffer();
+
+    private HarnessResponse createProject(int i) {
+        return client.send("POST", "/projects", createBuffer, CREATE_PROJECT.render(i, createBuffer));
     }
 
-    private Response updateProject(int projectId, String title, String description, boolean completed) {
-        Map<String, Object> projectData = new HashMap<>();
-        projectData.put("title", title);
-        projectData.put("description", description);
-        projectData.put("completed", completed);
-
-        return given()
-                .baseUri(BASE_URL)
-                .contentType("application/json")
-                .pathParam("id", projectId)
-                .body(projectData)
-                .when()
-                .post("/projects/{id}");
+    private HarnessResponse updateProject(int projectId, int i) {
+        return client.send("POST", "/projects/" + projectId, updateBuffer, UPDATE_PROJECT.render(i, updateBuffer));
     }
 
-    private Response deleteProject(int projectId) {
-        return given()
-                .baseUri(BASE_URL)
-                .pathParam("id", projectId)
-                .when()
-                .delete("/projects/{id}");
+    private HarnessResponse deleteProject(int projectId) {
+        return client.send("DELETE", "/projects/" + projectId, null);
     }
 
     private void delay() {
@@ -96,25 +81,37 @@ public class ProjectTest {
             // Create and Update Projects
             for (int i = 1; i <= n; i++) {
                 // Create Project
+                RequestPhaseEvent createEvent = RequestPhaseEvent.begin("POST /projects", "request");
                 long startTime = System.nanoTime();
-                Response createResponse = createProject("Title " + i, "Description for " + i + "th object", false);
+                HarnessResponse createResponse = createProject(i);
                 long timeToCreate = System.nanoTime() - startTime;
-                int projectId = createResponse.jsonPath().getInt("id");
+                createEvent.finish();
+                metrics.record("POST", "/projects", createResponse, timeToCreate);
+                RequestPhaseEvent parseEvent = RequestPhaseEvent.begin("POST /projects", "parse_id");
+                int projectId = createResponse.getId();
+                parseEvent.finish();
                 projectIds.add(projectId);
                 delay();
 
                 // Record metrics after creating
+                RequestPhaseEvent createMetricsEvent = RequestPhaseEvent.begin("POST /projects", "system_metrics");
                 Map<String, Object> createMetrics = getSystemMetrics();
+                createMetricsEvent.finish();
                 double createMemoryUsage = (double) createMetrics.get("used_memory");
                 double createCpuUsage = (double) createMetrics.get("cpu_load");
 
                 // Update Project
+                RequestPhaseEvent updateEvent = RequestPhaseEvent.begin("POST /projects/{id}", "request");
                 startTime = System.nanoTime();
-                updateProject(projectId, "Updated Title for " + i + "th object", "Updated Description for " + i + "th object", true);
+                HarnessResponse updateResponse = updateProject(projectId, i);
                 long timeToUpdate = System.nanoTime() - startTime;
+                updateEvent.finish();
+                metrics.record("POST", "/projects/{id}", updateResponse, timeToUpdate);
 
                 // Record metrics after updating
+                RequestPhaseEvent updateMetricsEvent = RequestPhaseEvent.begin("POST /projects/{id}", "system_metrics");
                 Map<String, Object> updateMetrics = getSystemMetrics();
+                updateMetricsEvent.finish();
                 double updateMemoryUsage = (double) updateMetrics.get("used_memory");
                 double updateCpuUsage = (double) updateMetrics.get("cpu_load");
 
@@ -135,12 +132,17 @@ public class ProjectTest {
 
             // Delete Projects and write metrics to CSV
             for (int i = 0; i < projectIds.size(); i++) {
+                RequestPhaseEvent deleteEvent = RequestPhaseEvent.begin("DELETE /projects/{id}", "request");
                 long startTime = System.nanoTime();
-                deleteProject(projectIds.get(i));
+                HarnessResponse deleteResponse = deleteProject(projectIds.get(i));
                 long timeToDelete = System.nanoTime() - startTime;
+                deleteEvent.finish();
+                metrics.record("DELETE", "/projects/{id}", deleteResponse, timeToDelete);
 
                 // Record metrics after deleting
+                RequestPhaseEvent deleteMetricsEvent = RequestPhaseEvent.begin("DELETE /projects/{id}", "system_metrics");
                 Map<String, Object> deleteMetrics = getSystemMetrics();
+                deleteMetricsEvent.finish();
                 double deleteMemoryUsage = (double) deleteMetrics.get("used_memory");
                 double deleteCpuUsage = (double) deleteMetrics.get("cpu_load");
 
@@ -156,6 +158,9 @@ public class ProjectTest {
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        metrics.writeTo("projectMetrics.prom", BASE_URL);
+        client.close();
     }
 
     public static void main(String[] args) {
@@ -163,7 +168,9 @@ public class ProjectTest {
         int n = 1000;
 
         long startTime = System.nanoTime(); // Get the start time
-        test.performanceTest(n);
+        try (JfrRecording recording = JfrRecording.startIfEnabled("project")) {
+            test.performanceTest(n);
+        }
         long endTime = System.nanoTime(); // Get the end time
     
         // Calculate the time taken in seconds
@@ -0,0 +1,129 @@
+package PerformanceTesting;
+
+import support.IdExtractor;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read throughput as followers are added behind a {@link ReplicatedCluster}. For every follower
+ * count a leader and that many followers are started on free ports; client threads then run the
+ * deployment's mix of twenty reads per write for a fixed period, writes going to the leader and
+ * reads to the followers. Each step is run with read-your-writes (a client reads at the version of
+ * its own last write) and with bounded staleness (a read may trail the leader by MAX_STALENESS
+ * writes), and records how many reads the followers absorbed and how far they fell behind.
+ */
+public class ReadScaleOutTest {
+
+    private static final int CLIENTS = 16;
+    private static final int READS_PER_WRITE = 20;
+    private static final long MAX_STALENESS = 50;
+    private static final long STEP_MILLIS = 10_000;
+
+    private void runStep(FileWriter writer, int followers, boolean readYourWrites) throws IOException {
+        List<ServerProcess> servers = new ArrayList<>();
+        try {
+            ServerProcess leader = ServerProcess.start(Collections.emptyList());
+            servers.add(leader);
+            List<String> followerUrls = new ArrayList<>();
+            for (int i = 0; i < followers; i++) {
+                ServerProcess follower = ServerProcess.start(Collections.emptyList());
+                servers.add(follower);
+                followerUrls.add(follower.getBaseUrl());
+            }
+
+            try (ReplicatedCluster cluster = new ReplicatedCluster(leader.getBaseUrl(), followerUrls)) {
+                LongAdder writes = new LongAdder();
+                LongAdder reads = new LongAdder();
+                LongAdder failures = new LongAdder();
+                LongAdder staleReads = new LongAdder();
+
+                LoadDriver driver = new LoadDriver();
+                driver.add("client", CLIENTS, () -> {
+                    List<Integer> own = new ArrayList<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] lastWrite = {0};
+                    return i -> {
+                        if (own.isEmpty() || i % (READS_PER_WRITE + 1) == 0) {
+                            Map<String, Object> todoData = BenchmarkFixtures.fields("Title " + i, "Description for " + i + "th object");
+                            ReplicatedCluster.WriteResult result = cluster.write("POST", "/todos", todoData);
+                            if (result.response.getStatusCode() != 201) {
+                                failures.increment();
+                            } else {
+                                own.add(IdExtractor.fromResponse(result.response));
+                                lastWrite[0] = result.version;
+                                writes.increment();
+                            }
+                        } else {
+                            int id = own.get(random.nextInt(own.size()));
+                            long minVersion = readYourWrites ? lastWrite[0] : Math.max(0, cluster.getVersion() - MAX_STALENESS);
+                            int status = cluster.read("/todos/" + id, minVersion).getStatusCode();
+                            if (status == 404 && !readYourWrites) {
+                                // The follower has not applied this client's write yet
+                                staleReads.increment();
+                            } else if (status != 200) {
+                                failures.increment();
+                            }
+                            reads.increment();
+                        }
+                    };
+                });
+
+                long maxLag = 0;
+                long startTime = System.nanoTime();
+                driver.start();
+                while (System.nanoTime() - startTime < STEP_MILLIS * 1_000_000) {
+                    Thread.sleep(100);
+                    maxLag = Math.max(maxLag, cluster.getMaxLag());
+                }
+                double seconds = driver.stop();
+
+                String mode = readYourWrites ? "read_your_writes" : "bounded_staleness";
+                double readThroughput = reads.sum() / seconds;
+                writer.write(followers + ", " + mode + ", " + readThroughput + ", " + writes.sum() / seconds + ", " +
+                        cluster.getFollowerReads() + ", " + cluster.getLeaderReads() + ", " + maxLag + ", " +
+                        staleReads.sum() + ", " + cluster.getDivergences() + ", " + cluster.getUnhealthyFollowers() + ", " + failures.sum() + ", " + driver.getErrors() + "\n");
+                System.out.println(followers + " followers, " + mode + ": " + String.format("%.0f reads/s", readThroughput) +
+                        ", " + cluster.getFollowerReads() + " follower / " + cluster.getLeaderReads() + " leader reads, max lag " +
+                        maxLag + ", " + staleReads.sum() + " stale reads, " + cluster.getDivergences() + " divergences (" +
+                        cluster.getApplyFailures() + " failed applies, " + cluster.getUnhealthyFollowers() + " followers out), " +
+                        driver.getErrors() + " errors");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during replication step", e);
+        } finally {
+            for (ServerProcess server : servers) {
+                server.close();
+            }
+        }
+    }
+
+    public void performanceTest(int maxFollowers) {
+        try (FileWriter writer = new FileWriter("readScaleOut.csv")) {
+            writer.write("#followers, mode, reads_per_second, writes_per_second, follower_reads, leader_reads, max_lag, stale_reads, divergences, unhealthy_followers, failures, errors\n");
+
+            for (int followers = 0; followers <= maxFollowers; followers = followers == 0 ? 1 : followers * 2) {
+                runStep(writer, followers, true);
+                if (followers > 0) {
+                    runStep(writer, followers, false);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        ReadScaleOutTest test = new ReadScaleOutTest();
+        int maxFollowers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        Benchmark.run("read scale-out run up to " + maxFollowers + " followers", () -> test.performanceTest(maxFollowers));
+    }
+}
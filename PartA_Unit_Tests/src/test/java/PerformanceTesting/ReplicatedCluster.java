@@ -0,0 +1,269 @@
+package PerformanceTesting;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import support.IdExtractor;
+import static io.restassured.RestAssured.given;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leader-follower replication of Todo Manager servers, driven from the client side. Writes go to
+ * the leader one at a time and are appended to an operation log in the order the leader applied
+ * them; one thread per follower replays the log against its server. All servers start from the
+ * same data and assign ids sequentially, so replaying the same writes in the same order yields the
+ * same ids everywhere (any mismatch is counted as a divergence).
+ *
+ * Every write returns its log sequence number as a version token. A read passes the token it
+ * needs: it is served by a follower that has applied at least that version (read-your-writes),
+ * and falls back to the leader when no follower is that far along. A follower that diverged, or
+ * could not apply a write, no longer mirrors the leader's ids; it stops replaying and serves no
+ * more reads. The log only keeps the writes some healthy follower still has to apply.
+ */
+public class ReplicatedCluster implements AutoCloseable {
+
+    private static final int TRIM_BATCH = 1024;
+
+    private static class Operation {
+        final long sequence;
+        final String method;
+        final String path;
+        final Map<String, Object> body;
+        final int leaderStatus;
+        final String leaderId;
+
+        Operation(long sequence, String method, String path, Map<String, Object> body, int leaderStatus, String leaderId) {
+            this.sequence = sequence;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.leaderStatus = leaderStatus;
+            this.leaderId = leaderId;
+        }
+    }
+
+    public static class WriteResult {
+        public final Response response;
+        public final long version;
+
+        WriteResult(Response response, long version) {
+            this.response = response;
+            this.version = version;
+        }
+    }
+
+    private final String leaderUrl;
+    private final List<String> followerUrls;
+    // Writes from sequence trimmed + 1 on; the earlier ones every healthy follower has applied
+    private final List<Operation> log = new ArrayList<>();
+    private long trimmed;
+    // Held across the leader round trip so the log order is the order the leader applied writes
+    private final Object writeLock = new Object();
+    private final AtomicLong[] applied;
+    private final AtomicBoolean[] healthy;
+    private final List<Thread> appliers = new ArrayList<>();
+    private final AtomicInteger nextFollower = new AtomicInteger();
+    private final LongAdder divergences = new LongAdder();
+    private final AtomicLong applyFailures = new AtomicLong();
+    private final LongAdder leaderReads = new LongAdder();
+    private final LongAdder followerReads = new LongAdder();
+    private volatile boolean running = true;
+
+    public ReplicatedCluster(String leaderUrl, List<String> followerUrls) {
+        this.leaderUrl = leaderUrl;
+        this.followerUrls = new ArrayList<>(followerUrls);
+        this.applied = new AtomicLong[followerUrls.size()];
+        this.healthy = new AtomicBoolean[followerUrls.size()];
+        for (int f = 0; f < applied.length; f++) {
+            applied[f] = new AtomicLong();
+            healthy[f] = new AtomicBoolean(true);
+            int follower = f;
+            Thread applier = new Thread(() -> replay(follower), "applier-" + f);
+            applier.setDaemon(true);
+            appliers.add(applier);
+            applier.start();
+        }
+    }
+
+    private static Response send(String baseUrl, String method, String path, Map<String, Object> body) {
+        RequestSpecification request = given().baseUri(baseUrl);
+        if (body != null) {
+            request = request.contentType("application/json").body(body);
+        }
+        return request.when().request(method, path);
+    }
+
+    private static String idOf(Response response) {
+        if (response.getStatusCode() != 201) {
+            return null;
+        }
+        return String.valueOf(IdExtractor.fromResponse(response));
+    }
+
+    /**
+     * Applies a write on the leader and logs it for the followers. The result carries the
+     * leader's response and the version token to pass to later reads.
+     */
+    public WriteResult write(String method, String path, Map<String, Object> body) {
+        synchronized (writeLock) {
+            Response leaderResponse = send(leaderUrl, method, path, body);
+            synchronized (log) {
+                long sequence = trimmed + log.size() + 1;
+                log.add(new Operation(sequence, method, path, body, leaderResponse.getStatusCode(), idOf(leaderResponse)));
+                log.notifyAll();
+                return new WriteResult(leaderResponse, sequence);
+            }
+        }
+    }
+
+    private void replay(int follower) {
+        String url = followerUrls.get(follower);
+        while (running) {
+            Operation operation;
+            synchronized (log) {
+                while (running && applied[follower].get() >= trimmed + log.size()) {
+                    try {
+                        log.wait(100);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                operation = log.get((int) (applied[follower].get() - trimmed));
+            }
+            boolean diverged;
+            try {
+                Response response = send(url, operation.method, operation.path, operation.body);
+                String id = idOf(response);
+                diverged = response.getStatusCode() != operation.leaderStatus
+                        || (operation.leaderId != null && !operation.leaderId.equals(id));
+            } catch (RuntimeException e) {
+                // Dropped connection: whether the follower applied the write is unknown
+                diverged = true;
+                if (applyFailures.getAndIncrement() == 0) {
+                    System.err.println("applier-" + follower + " failed to apply " + operation.method + " " + operation.path + ": " + e);
+                }
+            }
+            if (diverged) {
+                // Ids are assigned in sequence, every later id on this follower may differ now
+                divergences.increment();
+                healthy[follower].set(false);
+                trim();
+                return;
+            }
+            applied[follower].set(operation.sequence);
+            trim();
+        }
+    }
+
+    // Drops the writes every healthy follower has applied, in batches to keep removal cheap
+    private void trim() {
+        synchronized (log) {
+            long slowest = trimmed + log.size();
+            for (int f = 0; f < applied.length; f++) {
+                if (healthy[f].get()) {
+                    slowest = Math.min(slowest, applied[f].get());
+                }
+            }
+            int done = (int) (slowest - trimmed);
+            if (done >= TRIM_BATCH || (done > 0 && done == log.size())) {
+                log.subList(0, done).clear();
+                trimmed = slowest;
+            }
+        }
+    }
+
+    /**
+     * GETs a path from a follower that has applied at least {@code minVersion}, or from the leader
+     * if none has. Pass 0 to accept any follower however stale, or getVersion() minus a lag to
+     * bound staleness.
+     */
+    public Response read(String path, long minVersion) {
+        int followers = followerUrls.size();
+        int start = followers == 0 ? 0 : Math.floorMod(nextFollower.getAndIncrement(), followers);
+        for (int i = 0; i < followers; i++) {
+            int follower = (start + i) % followers;
+            if (healthy[follower].get() && applied[follower].get() >= minVersion) {
+                followerReads.increment();
+                return given().baseUri(followerUrls.get(follower)).when().get(path);
+            }
+        }
+        leaderReads.increment();
+        return given().baseUri(leaderUrl).when().get(path);
+    }
+
+    public long getVersion() {
+        synchronized (log) {
+            return trimmed + log.size();
+        }
+    }
+
+    /**
+     * Largest number of logged writes any healthy follower still has to apply.
+     */
+    public long getMaxLag() {
+        long version = getVersion();
+        long lag = 0;
+        for (int f = 0; f < applied.length; f++) {
+            if (healthy[f].get()) {
+                lag = Math.max(lag, version - applied[f].get());
+            }
+        }
+        return lag;
+    }
+
+    /**
+     * Followers taken out of replication and reads because they diverged from the leader.
+     */
+    public int getUnhealthyFollowers() {
+        int unhealthy = 0;
+        for (AtomicBoolean followerHealthy : healthy) {
+            if (!followerHealthy.get()) {
+                unhealthy++;
+            }
+        }
+        return unhealthy;
+    }
+
+    public long getDivergences() {
+        return divergences.sum();
+    }
+
+    /**
+     * Writes a follower could not apply because the request failed, included in the divergences.
+     */
+    public long getApplyFailures() {
+        return applyFailures.get();
+    }
+
+    public long getLeaderReads() {
+        return leaderReads.sum();
+    }
+
+    public long getFollowerReads() {
+        return followerReads.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        synchronized (log) {
+            log.notifyAll();
+        }
+        for (Thread applier : appliers) {
+            try {
+                applier.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package PerformanceTesting;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering one phase of a harness request, e.g. the HTTP round trip of
+ * "POST /todos" or parsing the id out of its response. Events cost next to nothing when no
+ * recording is running, so the performance tests emit them unconditionally.
+ */
+@Name("PerformanceTesting.RequestPhase")
+@Label("Request Phase")
+@Category({"Todo Manager", "Harness"})
+@Description("One phase of a request sent by the performance harness")
+public class RequestPhaseEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Phase")
+    String phase;
+
+    public static RequestPhaseEvent begin(String endpoint, String phase) {
+        RequestPhaseEvent event = new RequestPhaseEvent();
+        event.endpoint = endpoint;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package PerformanceTesting;
+
+import io.restassured.response.Response;
+import support.HarnessResponse;
+import static io.restassured.RestAssured.given;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Per-route request counts and latency histograms for the performance harness, written out in the
+ * Prometheus text format. Recording is lock-free: every series is a set of LongAdder cells, so
+ * worker threads only contend on a series the first time it is created. The dump also includes the
+ * server's store sizes (counted through the API) and the harness JVM's GC statistics.
+ */
+public class RouteMetrics {
+
+    // Upper bounds of the latency buckets in seconds
+    private static final double[] BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5};
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    private static class Gauge {
+        final String help;
+        final DoubleSupplier value;
+
+        Gauge(String help, DoubleSupplier value) {
+            this.help = help;
+            this.value = value;
+        }
+    }
+
+    private static class Series {
+        final String method;
+        final String route;
+        final int status;
+        final LongAdder count = new LongAdder();
+        final LongAdder sumNanos = new LongAdder();
+        final LongAdder[] buckets = new LongAdder[BUCKETS.length];
+
+        Series(String method, String route, int status) {
+            this.method = method;
+            this.route = route;
+            this.status = status;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+    }
+
+    public void record(String method, String route, int status, long nanos) {
+        Series s = series.computeIfAbsent(method + " " + route + " " + status, key -> new Series(method, route, status));
+        s.count.increment();
+        s.sumNanos.add(nanos);
+        double seconds = nanos / 1_000_000_000.0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            if (seconds <= BUCKETS[i]) {
+                s.buckets[i].increment();
+                break;
+            }
+        }
+    }
+
+    public void record(String method, String route, Response response, long nanos) {
+        record(method, route, response.getStatusCode(), nanos);
+    }
+
+    public void record(String method, String route, HarnessResponse response, long nanos) {
+        record(method, route, response.getStatusCode(), nanos);
+    }
+
+    /**
+     * Load shedding responses (503, 429) are counted apart from other errors so a run under
+     * overload can tell "server said no quickly" from "server got slow or broke".
+     */
+    public static boolean isRejection(int status) {
+        return status == 503 || status == 429;
+    }
+
+    /**
+     * Records a request that never got a response, e.g. a refused connection or a timeout.
+     */
+    public void recordFailure(String method, String route, Throwable failure) {
+        failures.computeIfAbsent(method + " " + route + " " + failure.getClass().getSimpleName(), key -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Registers a value that is read when the metrics are written, e.g. the current concurrency
+     * limit of an {@link AdaptiveLimiter}.
+     */
+    public void registerGauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(help, value));
+    }
+
+    private static String labels(Series s) {
+        return "method=\"" + s.method + "\",route=\"" + s.route + "\",status=\"" + s.status + "\"";
+    }
+
+    private void writeRequests(Writer writer) throws IOException {
+        // Sort so consecutive dumps diff cleanly
+        Map<String, Series> sorted = new TreeMap<>(series);
+
+        writer.write("# HELP harness_requests_total Requests sent by the harness.\n");
+        writer.write("# TYPE harness_requests_total counter\n");
+        for (Series s : sorted.values()) {
+            writer.write("harness_requests_total{" + labels(s) + "} " + s.count.sum() + "\n");
+        }
+
+        writer.write("# HELP harness_rejected_requests_total Requests shed by the server (503/429) or that failed without a response.\n");
+        writer.write("# TYPE harness_rejected_requests_total counter\n");
+        for (Series s : sorted.values()) {
+            if (isRejection(s.status)) {
+                writer.write("harness_rejected_requests_total{method=\"" + s.method + "\",route=\"" + s.route +
+                        "\",reason=\"" + s.status + "\"} " + s.count.sum() + "\n");
+            }
+        }
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(failures).entrySet()) {
+            String[] key = entry.getKey().split(" ", 3);
+            writer.write("harness_rejected_requests_total{method=\"" + key[0] + "\",route=\"" + key[1] +
+                    "\",reason=\"" + key[2] + "\"} " + entry.getValue().sum() + "\n");
+        }
+
+        writer.write("# HELP harness_request_duration_seconds Client-side round trip time.\n");
+        writer.write("# TYPE harness_request_duration_seconds histogram\n");
+        for (Series s : sorted.values()) {
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                cumulative += s.buckets[i].sum();
+                writer.write("harness_request_duration_seconds_bucket{" + labels(s) + ",le=\"" + BUCKETS[i] + "\"} " + cumulative + "\n");
+            }
+            writer.write("harness_request_duration_seconds_bucket{" + labels(s) + ",le=\"+Inf\"} " + s.count.sum() + "\n");
+            writer.write("harness_request_duration_seconds_sum{" + labels(s) + "} " + s.sumNanos.sum() / 1_000_000_000.0 + "\n");
+            writer.write("harness_request_duration_seconds_count{" + labels(s) + "} " + s.count.sum() + "\n");
+        }
+    }
+
+    private static void writeStoreSizes(Writer writer, String baseUrl) throws IOException {
+        String[][] collections = {
+                {"todos", "tasksof", "categories"},
+                {"projects", "tasks", "categories"},
+                {"categories", "todos", "projects"}
+        };
+        StringBuilder entityLines = new StringBuilder();
+        StringBuilder linkLines = new StringBuilder();
+        for (String[] collection : collections) {
+            Response response = given().baseUri(baseUrl).when().get("/" + collection[0]);
+            List<Map<String, Object>> entities = response.jsonPath().getList(collection[0]);
+            int size = entities == null ? 0 : entities.size();
+            entityLines.append("todomanager_store_entities{type=\"").append(collection[0]).append("\"} ").append(size).append("\n");
+
+            for (int i = 1; i < collection.length; i++) {
+                long links = 0;
+                if (entities != null) {
+                    for (Map<String, Object> entity : entities) {
+                        Object related = entity.get(collection[i]);
+                        if (related instanceof List) {
+                            links += ((List<?>) related).size();
+                        }
+                    }
+                }
+                linkLines.append("todomanager_store_links{type=\"").append(collection[0])
+                        .append("\",relationship=\"").append(collection[i]).append("\"} ").append(links).append("\n");
+            }
+        }
+
+        writer.write("# HELP todomanager_store_entities Entities currently stored by the server.\n");
+        writer.write("# TYPE todomanager_store_entities gauge\n");
+        writer.write(entityLines.toString());
+        writer.write("# HELP todomanager_store_links Relationship links currently stored by the server.\n");
+        writer.write("# TYPE todomanager_store_links gauge\n");
+        writer.write(linkLines.toString());
+    }
+
+    private static void writeGcStats(Writer writer) throws IOException {
+        writer.write("# HELP harness_gc_collections_total Collections run by the harness JVM.\n");
+        writer.write("# TYPE harness_gc_collections_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            writer.write("harness_gc_collections_total{gc=\"" + gc.getName() + "\"} " + gc.getCollectionCount() + "\n");
+        }
+        writer.write("# HELP harness_gc_collection_seconds_total Time spent in collections by the harness JVM.\n");
+        writer.write("# TYPE harness_gc_collection_seconds_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            writer.write("harness_gc_collection_seconds_total{gc=\"" + gc.getName() + "\"} " + gc.getCollectionTime() / 1000.0 + "\n");
+        }
+    }
+
+    private void writeGauges(Writer writer) throws IOException {
+        for (Map.Entry<String, Gauge> entry : new TreeMap<>(gauges).entrySet()) {
+            writer.write("# HELP " + entry.getKey() + " " + entry.getValue().help + "\n");
+            writer.write("# TYPE " + entry.getKey() + " gauge\n");
+            writer.write(entry.getKey() + " " + entry.getValue().value.getAsDouble() + "\n");
+        }
+    }
+
+    public void writePrometheus(Writer writer, String baseUrl) throws IOException {
+        writeRequests(writer);
+        writeGauges(writer);
+        writeStoreSizes(writer, baseUrl);
+        writeGcStats(writer);
+    }
+
+    public void writeTo(String fileName, String baseUrl) {
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writePrometheus(writer, baseUrl);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
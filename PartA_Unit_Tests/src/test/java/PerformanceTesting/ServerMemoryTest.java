@@ -0,0 +1,105 @@
+package PerformanceTesting;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retained server heap per todo. Each configuration starts its own server, measures the live heap
+ * (a class histogram through jcmd forces a full GC first), creates n todos and measures again.
+ * Two data sets are used: the unique "Title i" / "Description for ith object" text of the
+ * performance tests, and a set where titles repeat as they do in real data. Every data set is run
+ * on G1 without and with string deduplication, so the report shows how much of each entity is
+ * duplicated string data.
+ */
+public class ServerMemoryTest {
+
+    private static final int CREATORS = 8;
+    private static final int DISTINCT_TITLES = 100;
+
+    // G1 in both: small containers otherwise default to SerialGC and the rows would differ in collector
+    private static final List<String> DEFAULT_OPTIONS = Collections.singletonList("-XX:+UseG1GC");
+    private static final List<String> DEDUP_OPTIONS = Arrays.asList(
+            "-XX:+UseG1GC", "-XX:+UseStringDeduplication", "-XX:StringDeduplicationAgeThreshold=1");
+
+    private static long liveHeapBytes(long pid) throws IOException, InterruptedException {
+        String jcmd = Paths.get(System.getProperty("java.home"), "bin", "jcmd").toString();
+        Process process = new ProcessBuilder(jcmd, String.valueOf(pid), "GC.class_histogram")
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        process.waitFor();
+
+        // Last line looks like "Total        123456       7890123"
+        for (String line : output.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("Total")) {
+                String[] parts = trimmed.split("\\s+");
+                return Long.parseLong(parts[2]);
+            }
+        }
+        throw new IOException("No class histogram total from jcmd: " + output);
+    }
+
+    private long createAll(String baseUrl, int n, boolean repeatedTitles) {
+        AtomicInteger next = new AtomicInteger();
+        try (BenchmarkFixtures fixtures = new BenchmarkFixtures(baseUrl)) {
+            LoadDriver driver = new LoadDriver();
+            driver.add("creator", CREATORS, () -> iteration -> {
+                int i = next.incrementAndGet();
+                if (i <= n) {
+                    String title = repeatedTitles ? "Title " + (i % DISTINCT_TITLES) : "Title " + i;
+                    fixtures.createId("/todos", title, "Description for " + i + "th object");
+                }
+            });
+            driver.runIterations((n + CREATORS - 1) / CREATORS);
+            return driver.getErrors();
+        }
+    }
+
+    private void measure(FileWriter writer, String configuration, List<String> jvmOptions, String dataSet,
+                         boolean repeatedTitles, int n) throws IOException, InterruptedException {
+        try (ServerProcess server = ServerProcess.start(jvmOptions)) {
+            long before = liveHeapBytes(server.pid());
+            long errors = createAll(server.getBaseUrl(), n, repeatedTitles);
+            // Give concurrent deduplication a moment to process the last survivors
+            Thread.sleep(1000);
+            long after = liveHeapBytes(server.pid());
+
+            long created = n - errors;
+            double bytesPerEntity = (double) (after - before) / created;
+            writer.write(configuration + ", " + dataSet + ", " + created + ", " + before + ", " + after + ", " + bytesPerEntity + "\n");
+            System.out.println(configuration + " / " + dataSet + ": " + String.format("%.1f", bytesPerEntity) +
+                    " bytes per todo at " + created + " todos" + (errors > 0 ? " (" + errors + " creates failed)" : ""));
+        }
+    }
+
+    public void performanceTest(int n) {
+        try (FileWriter writer = new FileWriter("serverMemory.csv")) {
+            writer.write("#configuration, data_set, entities, live_heap_before, live_heap_after, bytes_per_entity\n");
+
+            measure(writer, "default", DEFAULT_OPTIONS, "unique_titles", false, n);
+            measure(writer, "string_dedup", DEDUP_OPTIONS, "unique_titles", false, n);
+            measure(writer, "default", DEFAULT_OPTIONS, "repeated_titles", true, n);
+            measure(writer, "string_dedup", DEDUP_OPTIONS, "repeated_titles", true, n);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during memory run", e);
+        }
+    }
+
+    public static void main(String[] args) {
+        ServerMemoryTest test = new ServerMemoryTest();
+        // 1000000 gives the 1M entity report, at HTTP create rates that is a long run
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        Benchmark.run("server memory run with " + n + " todos", () -> test.performanceTest(n));
+    }
+}
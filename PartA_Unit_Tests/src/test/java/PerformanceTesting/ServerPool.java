@@ -0,0 +1,300 @@
+package PerformanceTesting;
+
+import support.HarnessClient;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps K Todo Manager servers started and warmed up ahead of time, so a test that needs a
+ * server of its own gets one without paying a JVM boot and a cold JIT. A released server is
+ * replaced in the background: the server has no endpoint that resets its data, so recycling
+ * means stopping it and starting, then warming, a new one. An acquisition is a hit when a
+ * warmed server is waiting; otherwise the caller waits for the next one to become ready. With
+ * K = 0 there is no pool and every acquisition starts a cold server on the caller's thread.
+ * Once the pool is closed, released servers are stopped on the caller's thread.
+ */
+public class ServerPool implements AutoCloseable {
+
+    private static final int UNKNOWN_ID = Integer.MAX_VALUE;
+    // Create/update/delete cycles per entity type in a warmup. Every cycle uses up an id, and
+    // scenarios treat ids from 123 up as unknown, so the counters must stay well below that.
+    private static final int WRITE_ROUNDS = 20;
+    private static final String[] ENDPOINTS = {"/todos", "/projects", "/categories"};
+    private static final long POLL_MILLIS = 10;
+
+    private final int size;
+    private final int warmupRounds;
+    private final List<String> jvmOptions;
+    private final Path reportFile;
+    // One entry per pooled server, done once that server is warmed up
+    private final ConcurrentLinkedDeque<CompletableFuture<ServerProcess>> slots = new ConcurrentLinkedDeque<>();
+    // Servers taken from a slot and not yet released, counted from just before the slot is taken.
+    // A slot is put back and its lease ended under the slots lock, so acquire() never sees neither.
+    private final AtomicInteger leased = new AtomicInteger();
+    // Set under the slots lock, no slot is added once it is
+    private volatile boolean closed;
+    private final ExecutorService recycler;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final List<Long> acquireNanos = Collections.synchronizedList(new ArrayList<>());
+
+    public ServerPool(int size, int warmupRounds, List<String> jvmOptions, Path reportFile) {
+        this.size = size;
+        this.warmupRounds = warmupRounds;
+        this.jvmOptions = new ArrayList<>(jvmOptions);
+        this.reportFile = reportFile;
+        AtomicInteger threads = new AtomicInteger();
+        this.recycler = Executors.newFixedThreadPool(Math.max(1, size), runnable -> {
+            Thread thread = new Thread(runnable, "server-pool-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < size; i++) {
+            slots.add(CompletableFuture.supplyAsync(this::startWarmed, recycler));
+        }
+    }
+
+    /**
+     * Pool of -Dperf.pool.size servers warmed with -Dperf.pool.warmup rounds of requests (20 by
+     * default). Servers boot and warm up on the cores the tests leave idle, so the default size
+     * is two per core beyond the first; with a single core the pool would only take CPU from the
+     * tests and the default is no pool.
+     */
+    public static ServerPool forRun() {
+        int size = configuredSize();
+        int warmupRounds = Integer.getInteger("perf.pool.warmup", 20);
+        // Next to the Cucumber reports, the pool is reported at the end of every test run
+        return new ServerPool(size, warmupRounds, Collections.emptyList(), Paths.get("target", "serverPool.csv"));
+    }
+
+    static int configuredSize() {
+        return Integer.getInteger("perf.pool.size", 2 * (Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    private ServerProcess startWarmed() {
+        ServerProcess server;
+        try {
+            server = ServerProcess.start(jvmOptions);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        try (HarnessClient client = HarnessClient.create("lean", server.getBaseUrl())) {
+            warmUp(client);
+        } catch (RuntimeException e) {
+            server.close();
+            throw new CompletionException(e);
+        }
+        return server;
+    }
+
+    /**
+     * Synthetic workload touching the routes the tests use: listings, lookups of existing and
+     * unknown ids, rejected bodies and, for the first rounds, a full create/update/delete of an
+     * entity of each type. The server's own data is only read, so it is as it started.
+     */
+    private void warmUp(HarnessClient client) {
+        // Rejected by every endpoint, a body without a title would still create a project
+        Map<String, Object> invalid = new HashMap<>();
+        invalid.put("id", "1");
+        invalid.put("title", "Warmup body with an id");
+        for (int round = 0; round < warmupRounds; round++) {
+            for (String endpoint : ENDPOINTS) {
+                client.send("GET", endpoint, null);
+                client.send("GET", endpoint + "/1", null);
+                client.send("GET", endpoint + "/" + UNKNOWN_ID, null);
+                client.send("POST", endpoint, invalid);
+                if (round < WRITE_ROUNDS) {
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("title", "Warmup " + round);
+                    body.put("description", "Warmup entity " + round);
+                    int id = client.send("POST", endpoint, body).getId();
+                    body.put("description", "Updated warmup entity " + round);
+                    client.send("PUT", endpoint + "/" + id, body);
+                    client.send("DELETE", endpoint + "/" + id, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * A warmed server for the caller's exclusive use until {@link #release(ServerProcess)}. When
+     * a pooled server failed to start, a new one takes its slot and the caller gets the failure.
+     */
+    public ServerProcess acquire() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Server pool is closed");
+        }
+        long startTime = System.nanoTime();
+        boolean hit = false;
+        ServerProcess server;
+        if (size == 0) {
+            server = ServerProcess.start(jvmOptions);
+        } else {
+            CompletableFuture<ServerProcess> slot = takeDoneSlot();
+            hit = slot != null;
+            // Polls rather than join() or take(): the test engines run on a ForkJoinPool, which
+            // starts another worker, i.e. another scenario, for every worker blocked in those
+            while (slot == null) {
+                if (isIdle()) {
+                    // Nothing starting and nothing to come back, waiting would never end: start a
+                    // cold server instead, its release puts a slot back in the pool
+                    leased.incrementAndGet();
+                    try {
+                        server = ServerProcess.start(jvmOptions);
+                    } catch (IOException e) {
+                        leased.decrementAndGet();
+                        throw e;
+                    }
+                    acquireNanos.add(System.nanoTime() - startTime);
+                    return server;
+                }
+                try {
+                    Thread.sleep(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for a pooled server", e);
+                }
+                slot = takeDoneSlot();
+            }
+            try {
+                server = slot.join();
+            } catch (CompletionException e) {
+                returnSlot(this::startWarmed);
+                throw new IOException("Pooled server failed to start", e.getCause());
+            }
+        }
+        if (hit) {
+            hits.incrementAndGet();
+        }
+        acquireNanos.add(System.nanoTime() - startTime);
+        return server;
+    }
+
+    // Nothing starting and nothing leased that will come back
+    private boolean isIdle() {
+        synchronized (slots) {
+            return slots.isEmpty() && leased.get() == 0;
+        }
+    }
+
+    /**
+     * Ends a lease by adding a slot filled by the given start, or returns false when the pool is
+     * closed; the lease ends either way.
+     */
+    private boolean returnSlot(Supplier<ServerProcess> start) {
+        synchronized (slots) {
+            leased.decrementAndGet();
+            if (closed) {
+                return false;
+            }
+            slots.add(CompletableFuture.supplyAsync(start, recycler));
+            return true;
+        }
+    }
+
+    private CompletableFuture<ServerProcess> takeDoneSlot() {
+        for (CompletableFuture<ServerProcess> slot : slots) {
+            if (slot.isDone()) {
+                leased.incrementAndGet();
+                if (slots.remove(slot)) {
+                    return slot;
+                }
+                leased.decrementAndGet();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hands the server back. It is stopped and a fresh warmed server takes its slot, both in the
+     * background, so the caller does not wait for either. After {@link #close()} the server is
+     * only stopped, here.
+     */
+    public void release(ServerProcess server) {
+        boolean recycled = size > 0 && returnSlot(() -> {
+            server.close();
+            return startWarmed();
+        });
+        if (!recycled) {
+            server.close();
+        }
+    }
+
+    public int getAcquisitions() {
+        return acquireNanos.size();
+    }
+
+    public double getHitRate() {
+        int acquisitions = getAcquisitions();
+        return acquisitions == 0 ? 0 : (double) hits.get() / acquisitions;
+    }
+
+    /**
+     * Appends the pool's hit rate and acquisition latency to the report file and prints them.
+     */
+    public void report() {
+        long[] nanos;
+        synchronized (acquireNanos) {
+            nanos = acquireNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        if (nanos.length == 0) {
+            return;
+        }
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+        double p50 = nanos[nanos.length / 2] / 1_000_000.0;
+        double p99 = nanos[(int) (nanos.length * 0.99)] / 1_000_000.0;
+        double max = nanos[nanos.length - 1] / 1_000_000.0;
+
+        boolean newFile = !Files.exists(reportFile);
+        try (FileWriter writer = new FileWriter(reportFile.toFile(), true)) {
+            if (newFile) {
+                writer.write("#timestamp, pool_size, warmup_rounds, acquisitions, hit_rate, mean_acquire_ms, p50_acquire_ms, p99_acquire_ms, max_acquire_ms\n");
+            }
+            writer.write(Instant.now() + ", " + size + ", " + warmupRounds + ", " + nanos.length + ", " + getHitRate() + ", " +
+                    mean + ", " + p50 + ", " + p99 + ", " + max + "\n");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        System.out.println("Server pool of " + size + ": " + nanos.length + " acquisitions, " +
+                String.format("%.0f%%", getHitRate() * 100) + " hits, acquisition " +
+                String.format("%.1f ms", mean) + " mean, " + String.format("%.1f ms", p50) + " p50, " +
+                String.format("%.1f ms", p99) + " p99, " + String.format("%.1f ms", max) + " max");
+    }
+
+    /**
+     * Reports, then stops every pooled server, waiting for those still starting.
+     */
+    @Override
+    public void close() {
+        synchronized (slots) {
+            closed = true;
+        }
+        report();
+        CompletableFuture<ServerProcess> slot;
+        while ((slot = slots.poll()) != null) {
+            try {
+                slot.join().close();
+            } catch (CompletionException e) {
+                // Never started, nothing to stop
+            }
+        }
+        recycler.shutdown();
+    }
+}
@@ -0,0 +1,207 @@
+package PerformanceTesting;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Todo Manager server started from runTodoManagerRestAPI-1.5.5.jar in its own JVM, for runs that
+ * need an isolated server (their own port, their own JVM options) instead of the shared one on
+ * localhost:4567. The jar is looked up in the working directory and then in src/test/java, or
+ * taken from -Dperf.server.jar. With -Dperf.server.cds pointing at an AppCDS archive built by
+ * {@link AppCdsArchive}, every server is started from that archive unless its options already
+ * set -XX:SharedArchiveFile or -Xshare.
+ * <p>
+ * A free port is only free until something binds it. Ports handed out in this JVM are reserved
+ * until their server is closed, so concurrent starts here never pick the same one; a server that
+ * exits before answering lost its port to another process (the jar exits when the bind fails) and
+ * is started again on a new port.
+ */
+public class ServerProcess implements AutoCloseable {
+
+    public static final String JAR_NAME = "runTodoManagerRestAPI-1.5.5.jar";
+    private static final int START_ATTEMPTS = 3;
+    private static final long READY_TIMEOUT_MILLIS = 30_000;
+    private static final Set<Integer> RESERVED_PORTS = ConcurrentHashMap.newKeySet();
+
+    private final Process process;
+    private final int port;
+
+    private ServerProcess(Process process, int port) {
+        this.process = process;
+        this.port = port;
+    }
+
+    public static Path findJar() {
+        String configured = System.getProperty("perf.server.jar");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        Path local = Paths.get(JAR_NAME);
+        if (Files.exists(local)) {
+            return local;
+        }
+        return Paths.get("src", "test", "java", JAR_NAME);
+    }
+
+    // A port the OS considers free and no server of this JVM holds, reserved until close()
+    private static int reservePort() throws IOException {
+        while (true) {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                socket.setReuseAddress(true);
+                port = socket.getLocalPort();
+            }
+            if (RESERVED_PORTS.add(port)) {
+                return port;
+            }
+        }
+    }
+
+    private static ServerProcess launch(int port, List<String> jvmOptions) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String archive = System.getProperty("perf.server.cds");
+        if (archive != null && Files.exists(Paths.get(archive))
+                && jvmOptions.stream().noneMatch(option -> option.startsWith("-XX:SharedArchiveFile") || option.startsWith("-Xshare"))) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(findJar().toString());
+        command.add("-port=" + port);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(System.getProperty("java.io.tmpdir"), "todomanager-" + port + ".log")))
+                .start();
+        return new ServerProcess(process, port);
+    }
+
+    /**
+     * Starts a server on the given port with extra JVM options and waits until it answers
+     * GET /todos with 200.
+     */
+    public static ServerProcess start(int port, List<String> jvmOptions) throws IOException {
+        ServerProcess server = launch(port, jvmOptions);
+        if (!server.awaitReady(READY_TIMEOUT_MILLIS)) {
+            server.close();
+            throw new IOException("Todo Manager on port " + port + " did not become ready");
+        }
+        return server;
+    }
+
+    /**
+     * Starts a server on a free port, moving to another port when the server exits before it
+     * answers, and waits until it answers GET /todos with 200.
+     */
+    public static ServerProcess start(List<String> jvmOptions) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            int port = reservePort();
+            ServerProcess server;
+            try {
+                server = launch(port, jvmOptions);
+            } catch (IOException e) {
+                RESERVED_PORTS.remove(port);
+                throw e;
+            }
+            if (server.awaitReady(READY_TIMEOUT_MILLIS)) {
+                return server;
+            }
+            boolean exited = !server.isAlive();
+            server.close();
+            if (!exited || attempt == START_ATTEMPTS) {
+                throw new IOException("Todo Manager on port " + port + " did not become ready" +
+                        (exited ? " in " + attempt + " attempts, it exited with " + server.process.exitValue() : ""));
+            }
+        }
+    }
+
+    public static boolean isReady(String baseUrl) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/todos").openConnection();
+            connection.setConnectTimeout(500);
+            connection.setReadTimeout(2000);
+            return connection.getResponseCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public boolean awaitReady(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                return false;
+            }
+            if (isReady(getBaseUrl())) {
+                return true;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    public long pid() {
+        return process.pid();
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Asks the server to exit through GET /shutdown and waits up to the timeout for the JVM to
+     * finish (a JVM dumping a CDS archive at exit needs a few seconds) before killing it.
+     */
+    public void shutdown(long timeoutMillis) {
+        // A server that already exited may have lost its port, whoever holds it now is not ours
+        if (process.isAlive()) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(getBaseUrl() + "/shutdown").openConnection();
+                connection.setConnectTimeout(500);
+                connection.setReadTimeout(500);
+                connection.getResponseCode();
+            } catch (IOException e) {
+                // The server exits while answering, a dropped connection is expected
+            }
+        }
+        try {
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown(5000);
+        RESERVED_PORTS.remove(port);
+    }
+}
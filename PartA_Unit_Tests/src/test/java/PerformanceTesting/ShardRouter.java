@@ -0,0 +1,186 @@
+package PerformanceTesting;
+
+import io.restassured.response.Response;
+import support.IdExtractor;
+import static io.restassured.RestAssured.given;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side router over several Todo Manager servers ("shards"). The router hands out global
+ * ids itself and places each entity on the shard that owns the id on a consistent hash ring with
+ * virtual nodes, so adding a shard moves only about 1/N of the keys. Because the servers assign
+ * their own ids, the router keeps the global-to-local id mapping per shard. Collection GETs are
+ * fanned out to every shard in parallel and merged, with local ids rewritten to global ones;
+ * entities the router did not place are left out, their local ids clash across shards.
+ * Links between entities on different shards are not possible, every server only knows its own ids.
+ */
+public class ShardRouter implements AutoCloseable {
+
+    private static final int VIRTUAL_NODES = 64;
+
+    private final List<String> shardUrls;
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<Long, Integer> localIds = new ConcurrentHashMap<>();
+    // Per shard, "<endpoint>/<local id>" to global id, since each entity type has its own id space
+    private final List<Map<String, Long>> globalIds = new ArrayList<>();
+    private final ExecutorService fanOut;
+
+    public ShardRouter(List<String> shardUrls) {
+        this.shardUrls = new ArrayList<>(shardUrls);
+        for (int shard = 0; shard < shardUrls.size(); shard++) {
+            for (int v = 0; v < VIRTUAL_NODES; v++) {
+                ring.put(mix(((long) shard << 32) | v), shard);
+            }
+            globalIds.add(new ConcurrentHashMap<>());
+        }
+        this.fanOut = Executors.newFixedThreadPool(shardUrls.size());
+    }
+
+    // 64-bit finalizer from MurmurHash3, spreads sequential ids over the ring
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb93e185a8b53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    public int shardFor(long globalId) {
+        SortedMap<Long, Integer> tail = ring.tailMap(mix(globalId));
+        return tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    public int getShardCount() {
+        return shardUrls.size();
+    }
+
+    /**
+     * Creates the entity on the shard owning a new global id and returns that id, or -1 when the
+     * shard did not answer 201.
+     */
+    public long create(String endpoint, Map<String, Object> body) {
+        long globalId = nextId.getAndIncrement();
+        int shard = shardFor(globalId);
+        Response response = given()
+                .baseUri(shardUrls.get(shard))
+                .contentType("application/json")
+                .body(body)
+                .when()
+                .post(endpoint);
+        if (response.getStatusCode() != 201) {
+            return -1;
+        }
+        int localId = IdExtractor.fromResponse(response);
+        localIds.put(globalId, localId);
+        globalIds.get(shard).put(endpoint + "/" + localId, globalId);
+        return globalId;
+    }
+
+    private int localIdOf(long globalId) {
+        Integer localId = localIds.get(globalId);
+        if (localId == null) {
+            throw new IllegalArgumentException("Id " + globalId + " was not created through this router");
+        }
+        return localId;
+    }
+
+    public Response get(String endpoint, long globalId) {
+        int shard = shardFor(globalId);
+        return given()
+                .baseUri(shardUrls.get(shard))
+                .pathParam("id", localIdOf(globalId))
+                .when()
+                .get(endpoint + "/{id}");
+    }
+
+    public Response delete(String endpoint, long globalId) {
+        int shard = shardFor(globalId);
+        int localId = localIdOf(globalId);
+        localIds.remove(globalId);
+        globalIds.get(shard).remove(endpoint + "/" + localId);
+        return given()
+                .baseUri(shardUrls.get(shard))
+                .pathParam("id", localId)
+                .when()
+                .delete(endpoint + "/{id}");
+    }
+
+    /**
+     * GETs the collection from every shard at once and merges the results. Entities the router
+     * did not create (e.g. a server's built-in sample data) are left out: every shard has its own
+     * copy under the same local ids, and get() could not find them by id.
+     */
+    public List<Map<String, Object>> getAll(String endpoint, Map<String, String> query) {
+        String collection = endpoint.substring(1);
+        List<CompletableFuture<List<Map<String, Object>>>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shardUrls.size(); shard++) {
+            int s = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Response response = given()
+                        .baseUri(shardUrls.get(s))
+                        .queryParams(query)
+                        .when()
+                        .get(endpoint);
+                return response.jsonPath().<Map<String, Object>>getList(collection);
+            }, fanOut));
+        }
+
+        List<List<Map<String, Object>>> perShard = new ArrayList<>();
+        for (CompletableFuture<List<Map<String, Object>>> future : futures) {
+            perShard.add(future.join());
+        }
+        return merge(endpoint, perShard, globalIds);
+    }
+
+    /**
+     * The entities of every shard with their local ids rewritten to global ones, dropping those
+     * without a global id. {@code globalIds} maps "endpoint/local id" to global id per shard.
+     */
+    static List<Map<String, Object>> merge(String endpoint, List<List<Map<String, Object>>> perShard, List<Map<String, Long>> globalIds) {
+        List<Map<String, Object>> merged = new ArrayList<>();
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            List<Map<String, Object>> entities = perShard.get(shard);
+            if (entities == null) {
+                continue;
+            }
+            for (Map<String, Object> entity : entities) {
+                Long globalId = globalIds.get(shard).get(endpoint + "/" + entity.get("id"));
+                if (globalId != null) {
+                    Map<String, Object> copy = new HashMap<>(entity);
+                    copy.put("id", String.valueOf(globalId));
+                    merged.add(copy);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Number of entities the router has placed on each shard.
+     */
+    public int[] distribution() {
+        int[] counts = new int[shardUrls.size()];
+        for (int shard = 0; shard < counts.length; shard++) {
+            counts[shard] = globalIds.get(shard).size();
+        }
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        fanOut.shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+package PerformanceTesting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShardRouterTest {
+
+    private static Map<String, Object> todo(String id, String title) {
+        Map<String, Object> todo = new HashMap<>();
+        todo.put("id", id);
+        todo.put("title", title);
+        return todo;
+    }
+
+    @Test
+    void testMergeRewritesRoutedIdsAndDropsSampleData() {
+        // Both shards hold the server's sample todo under local id 1, and a routed todo under 2
+        List<List<Map<String, Object>>> perShard = List.of(
+                List.of(todo("1", "sample"), todo("2", "routed on shard 0")),
+                List.of(todo("1", "sample"), todo("2", "routed on shard 1")));
+        List<Map<String, Long>> globalIds = new ArrayList<>();
+        globalIds.add(Map.of("/todos/2", 7L));
+        globalIds.add(Map.of("/todos/2", 8L));
+
+        List<Map<String, Object>> merged = ShardRouter.merge("/todos", perShard, globalIds);
+
+        assertEquals(2, merged.size());
+        assertEquals(Set.of("7", "8"), merged.stream().map(todo -> todo.get("id")).collect(Collectors.toSet()));
+        assertEquals("routed on shard 0", merged.stream().filter(todo -> todo.get("id").equals("7")).findFirst().get().get("title"));
+    }
+
+    @Test
+    void testMergeKeepsEntityTypesApart() {
+        List<List<Map<String, Object>>> perShard = List.of(List.of(todo("2", "project")));
+        List<Map<String, Long>> globalIds = List.of(Map.of("/todos/2", 7L));
+
+        assertEquals(0, ShardRouter.merge("/projects", perShard, globalIds).size());
+    }
+
+    @Test
+    void testUnknownIdIsRejected() {
+        try (ShardRouter router = new ShardRouter(List.of("http://localhost:1"))) {
+            assertThrows(IllegalArgumentException.class, () -> router.get("/todos", 42));
+            assertThrows(IllegalArgumentException.class, () -> router.delete("/todos", 42));
+        }
+    }
+}
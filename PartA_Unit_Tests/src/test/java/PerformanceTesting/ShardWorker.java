@@ -0,0 +1,109 @@
+package PerformanceTesting;
+
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathResource;
+import static org.junit.platform.launcher.EngineFilter.includeEngines;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * One fork of a {@link ShardedRun}: starts its own Todo Manager, points the JUnit suites at it
+ * with -Dtodo.baseUri and runs its units one after the other, in the order given. Features that
+ * failed last run get a Cucumber execution of their own, ahead of one for all other features,
+ * so their result is in before the rest have run; within an execution the scenarios share one
+ * steps.WorkerServer pool as in a normal run. The fork writes failed scenarios to
+ * target/rerun/shard-N*.txt, merged by the driver into target/rerun.txt. Exits with 1 when a
+ * test failed.
+ *
+ * Usage: ShardWorker shard unit... where a unit is a test class name or "features/Name.feature".
+ */
+public class ShardWorker {
+
+    private static LauncherDiscoveryRequest testClassRequest(String unit) {
+        return request()
+                .selectors(selectClass(unit))
+                .filters(includeEngines("junit-jupiter"))
+                .build();
+    }
+
+    // Cucumber runs @AfterAll, which stops the server pool, at the end of every execution and the
+    // next one warms a new pool, so the features are not split up any further
+    private static LauncherDiscoveryRequest featuresRequest(List<String> features, String rerunFile) {
+        return request()
+                .selectors(features.stream().map(feature -> selectClasspathResource(feature)).collect(Collectors.toList()))
+                .filters(includeEngines("cucumber"))
+                .configurationParameter("cucumber.glue", "steps")
+                .configurationParameter("cucumber.plugin", "rerun:" + rerunFile)
+                .build();
+    }
+
+    private static TestExecutionSummary execute(Launcher launcher, LauncherDiscoveryRequest request, int shard, String name, PrintWriter out) {
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(request, listener);
+
+        TestExecutionSummary summary = listener.getSummary();
+        summary.printFailuresTo(out, 5);
+        out.println("Shard " + shard + ": " + name + ", " + summary.getTestsStartedCount() + " tests, " +
+                summary.getTestsFailedCount() + " failed in " + (summary.getTimeFinished() - summary.getTimeStarted()) + " ms");
+        return summary;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int shard = Integer.parseInt(args[0]);
+        long testsRun = 0;
+        long testsFailed = 0;
+        PrintWriter out = new PrintWriter(System.out, true);
+
+        long startTime = System.nanoTime();
+        try (ServerProcess server = ServerProcess.start(Collections.emptyList())) {
+            System.setProperty("todo.baseUri", server.getBaseUrl());
+            Launcher launcher = LauncherFactory.create();
+            List<String> units = Arrays.asList(args).subList(1, args.length);
+            Set<String> failedLastRun = ShardedRun.failedUnits();
+            List<String> features = units.stream().filter(unit -> unit.endsWith(".feature")).collect(Collectors.toList());
+            List<String> retried = features.stream().filter(failedLastRun::contains).collect(Collectors.toList());
+            List<String> others = features.stream().filter(feature -> !failedLastRun.contains(feature)).collect(Collectors.toList());
+
+            List<TestExecutionSummary> summaries = new ArrayList<>();
+            boolean featuresRan = false;
+            for (String unit : units) {
+                if (!unit.endsWith(".feature")) {
+                    summaries.add(execute(launcher, testClassRequest(unit), shard, unit, out));
+                } else if (!featuresRan) {
+                    // Where the first feature was packed, the driver packs the failed ones first
+                    if (!retried.isEmpty()) {
+                        summaries.add(execute(launcher, featuresRequest(retried, "target/rerun/shard-" + shard + "-retried.txt"),
+                                shard, retried.size() + " features that failed last run", out));
+                    }
+                    if (!others.isEmpty()) {
+                        summaries.add(execute(launcher, featuresRequest(others, "target/rerun/shard-" + shard + ".txt"),
+                                shard, others.size() + " features", out));
+                    }
+                    featuresRan = true;
+                }
+            }
+            for (TestExecutionSummary summary : summaries) {
+                testsRun += summary.getTestsStartedCount();
+                testsFailed += summary.getTestsFailedCount();
+            }
+        }
+        double timeTaken = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+        out.println("Shard " + shard + " ran " + testsRun + " tests, " + testsFailed + " failed, in " + timeTaken + " seconds");
+        System.exit(testsFailed > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,227 @@
+package PerformanceTesting;
+
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.platform.engine.discovery.ClassNameFilter.includeClassNamePatterns;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathRoots;
+import static org.junit.platform.launcher.EngineFilter.includeEngines;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Runs the functional suites split over N forked JVMs ({@link ShardWorker}), each with its own
+ * Todo Manager. The units are the JUnit test classes surefire would run and the Cucumber feature
+ * files. They are bin-packed by the durations {@link DurationRecorder} recorded in earlier runs:
+ * longest first, each onto the fork with the least work so far, units without history counting
+ * as the average unit. Features with a scenario in target/rerun.txt, i.e. that failed last time,
+ * are packed before all others and run by their fork ahead of its other features. Every fork
+ * records its durations, so the next plan uses them, and gets 1/N of the -Dperf.pool.size
+ * servers. Run with mvn -Pshards test (-Dshards=N, 2 by default); fails the build when a test
+ * failed.
+ */
+public class ShardedRun {
+
+    private static final Path TEST_CLASSES = Paths.get("target", "test-classes");
+    private static final Path RERUN_FILE = Paths.get("target", "rerun.txt");
+    private static final Path RERUN_DIR = Paths.get("target", "rerun");
+    // Per unit when there is no history at all
+    private static final double DEFAULT_UNIT_MILLIS = 1000;
+
+    static class Plan {
+        // Per shard, the units in the order they run
+        final List<List<String>> units;
+        // Per shard, the summed duration estimate of its units
+        final double[] expectedMillis;
+
+        Plan(List<List<String>> units, double[] expectedMillis) {
+            this.units = units;
+            this.expectedMillis = expectedMillis;
+        }
+    }
+
+    /**
+     * JUnit test classes matching surefire's default includes, then the feature files.
+     */
+    static List<String> discoverUnits() throws IOException {
+        TestPlan plan = LauncherFactory.create().discover(request()
+                .selectors(selectClasspathRoots(Set.of(TEST_CLASSES)))
+                .filters(includeEngines("junit-jupiter"),
+                        includeClassNamePatterns("^(Test.*|.+[.$]Test.*|.*Tests?|.*TestCase)$"))
+                .build());
+        List<String> units = new ArrayList<>();
+        for (TestIdentifier root : plan.getRoots()) {
+            for (TestIdentifier child : plan.getChildren(root)) {
+                TestSource source = child.getSource().orElse(null);
+                if (source instanceof ClassSource) {
+                    units.add(((ClassSource) source).getClassName());
+                }
+            }
+        }
+        try (Stream<Path> features = Files.list(TEST_CLASSES.resolve("features"))) {
+            features.map(path -> "features/" + path.getFileName())
+                    .filter(name -> name.endsWith(".feature"))
+                    .sorted()
+                    .forEach(units::add);
+        }
+        return units;
+    }
+
+    /**
+     * Feature files with a scenario that failed in the last run. rerun.txt lists one
+     * "classpath:features/Name.feature:line:line" per failed feature.
+     */
+    static Set<String> failedUnits() throws IOException {
+        Set<String> failed = new HashSet<>();
+        if (!Files.exists(RERUN_FILE)) {
+            return failed;
+        }
+        for (String entry : Files.readString(RERUN_FILE).split("\\s+")) {
+            String path = entry.startsWith("classpath:") ? entry.substring("classpath:".length()) : entry;
+            int colon = path.indexOf(':');
+            if (!path.isEmpty()) {
+                failed.add(colon >= 0 ? path.substring(0, colon) : path);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Longest-processing-time-first packing of the units onto the shards, previously failed
+     * units ahead of the rest. Each shard runs its units in the order they were assigned.
+     */
+    static Plan plan(List<String> units, Set<String> failed, DurationHistory history, int shards) {
+        double known = units.stream().mapToDouble(history::getUnitMillis).filter(millis -> millis >= 0).average().orElse(DEFAULT_UNIT_MILLIS);
+        Comparator<String> order = Comparator.<String, Boolean>comparing(unit -> !failed.contains(unit))
+                .thenComparing(unit -> -estimate(history, unit, known));
+
+        List<List<String>> plan = new ArrayList<>();
+        double[] loads = new double[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            plan.add(new ArrayList<>());
+        }
+        for (String unit : units.stream().sorted(order).collect(Collectors.toList())) {
+            int lightest = 0;
+            for (int shard = 1; shard < shards; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            plan.get(lightest).add(unit);
+            loads[lightest] += estimate(history, unit, known);
+        }
+        return new Plan(plan, loads);
+    }
+
+    private static double estimate(DurationHistory history, String unit, double fallback) {
+        double millis = history.getUnitMillis(unit);
+        return millis >= 0 ? millis : fallback;
+    }
+
+    // The forks' rerun files become the single rerun.txt the next run reads
+    private static void mergeRerunFiles() throws IOException {
+        StringBuilder merged = new StringBuilder();
+        if (Files.isDirectory(RERUN_DIR)) {
+            try (Stream<Path> files = Files.list(RERUN_DIR)) {
+                for (Path file : files.sorted().collect(Collectors.toList())) {
+                    String content = Files.readString(file).trim();
+                    if (!content.isEmpty()) {
+                        merged.append(content).append('\n');
+                    }
+                }
+            }
+        }
+        Files.writeString(RERUN_FILE, merged.toString());
+    }
+
+    private static void clearRerunFiles() throws IOException {
+        if (Files.isDirectory(RERUN_DIR)) {
+            try (Stream<Path> files = Files.list(RERUN_DIR)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(RERUN_DIR);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int shards = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+
+        List<String> units = discoverUnits();
+        Set<String> failed = failedUnits();
+        DurationHistory history = DurationHistory.load(DurationHistory.DEFAULT_FILE);
+        Plan plan = plan(units, failed, history, shards);
+        System.out.println("Packed " + units.size() + " units onto " + shards + " forks" +
+                (history.isEmpty() ? " without duration history" : "") + ", " + failed.size() + " failed last run");
+        for (int shard = 0; shard < shards; shard++) {
+            System.out.println("Shard " + shard + " (" + String.format("%.1f s", plan.expectedMillis[shard] / 1000) + " expected): " + plan.units.get(shard));
+        }
+        clearRerunFiles();
+
+        // The forks share the cores the pool size is meant for
+        int poolSize = ServerPool.configuredSize() / shards;
+
+        long startTime = System.nanoTime();
+        List<Process> forks = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            if (plan.units.get(shard).isEmpty()) {
+                continue;
+            }
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            // Passed on by the shards profile, empty when not given to Maven
+            for (String property : new String[]{"perf.server.jar", "perf.server.cds", "perf.pool.warmup"}) {
+                String value = System.getProperty(property, "");
+                if (!value.isEmpty()) {
+                    command.add("-D" + property + "=" + value);
+                }
+            }
+            command.add("-Dperf.pool.size=" + poolSize);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ShardWorker.class.getName());
+            command.add(String.valueOf(shard));
+            command.addAll(plan.units.get(shard));
+            forks.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File("target", "shard-" + shard + ".log"))
+                    .start());
+        }
+
+        boolean passed = true;
+        for (Process fork : forks) {
+            passed &= fork.waitFor() == 0;
+        }
+        double timeTaken = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        mergeRerunFiles();
+
+        for (int shard = 0; shard < shards; shard++) {
+            Path log = Paths.get("target", "shard-" + shard + ".log");
+            String result = "Shard " + shard + " ran";
+            if (Files.exists(log)) {
+                try (Stream<String> lines = Files.lines(log)) {
+                    lines.filter(line -> line.startsWith(result)).forEach(System.out::println);
+                }
+            }
+        }
+        System.out.println("Total time taken for " + shards + " forks: " + timeTaken + " seconds" +
+                (passed ? "" : ", failures in " + RERUN_FILE + " and the target/shard-N.log files"));
+        System.exit(passed ? 0 : 1);
+    }
+}
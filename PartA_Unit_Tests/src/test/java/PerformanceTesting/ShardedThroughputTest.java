@@ -0,0 +1,100 @@
+package PerformanceTesting;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of a mixed todo workload as the number of shards grows. For every shard count that
+ * many servers are started on free ports behind a {@link ShardRouter}; client threads then create
+ * todos and read back random ones they created (one create per four reads) for a fixed period.
+ * After each step a fanned-out GET /todos is timed and the key distribution across shards is
+ * recorded, which shows how evenly the hash ring spreads the ids.
+ */
+public class ShardedThroughputTest {
+
+    private static final int CLIENTS = 16;
+    private static final long STEP_MILLIS = 10_000;
+
+    private void runStep(FileWriter writer, int shards) throws IOException {
+        List<ServerProcess> servers = new ArrayList<>();
+        try {
+            List<String> urls = new ArrayList<>();
+            for (int i = 0; i < shards; i++) {
+                ServerProcess server = ServerProcess.start(Collections.emptyList());
+                servers.add(server);
+                urls.add(server.getBaseUrl());
+            }
+
+            try (ShardRouter router = new ShardRouter(urls)) {
+                LongAdder creates = new LongAdder();
+                LongAdder reads = new LongAdder();
+                LongAdder failures = new LongAdder();
+
+                LoadDriver driver = new LoadDriver();
+                driver.add("client", CLIENTS, () -> {
+                    List<Long> own = new ArrayList<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    return i -> {
+                        if (own.isEmpty() || i % 5 == 0) {
+                            long id = router.create("/todos", BenchmarkFixtures.fields("Title " + i, "Description for " + i + "th object"));
+                            if (id < 0) {
+                                failures.increment();
+                            } else {
+                                own.add(id);
+                                creates.increment();
+                            }
+                        } else {
+                            long id = own.get(random.nextInt(own.size()));
+                            if (router.get("/todos", id).getStatusCode() != 200) {
+                                failures.increment();
+                            }
+                            reads.increment();
+                        }
+                    };
+                });
+                double seconds = driver.runFor(STEP_MILLIS);
+
+                long fanOutStart = System.nanoTime();
+                int merged = router.getAll("/todos", Collections.emptyMap()).size();
+                long fanOutNanos = System.nanoTime() - fanOutStart;
+
+                double throughput = (creates.sum() + reads.sum()) / seconds;
+                writer.write(shards + ", " + throughput + ", " + creates.sum() / seconds + ", " + reads.sum() / seconds + ", " +
+                        failures.sum() + ", " + driver.getErrors() + ", " + merged + ", " + fanOutNanos / 1_000_000.0 + ", " +
+                        Arrays.toString(router.distribution()).replace(", ", " ") + "\n");
+                System.out.println(shards + " shards: " + String.format("%.0f ops/s", throughput) + ", " + driver.getErrors() + " errors, fan-out GET of " +
+                        merged + " todos in " + String.format("%.1f ms", fanOutNanos / 1_000_000.0) +
+                        ", distribution " + Arrays.toString(router.distribution()));
+            }
+        } finally {
+            for (ServerProcess server : servers) {
+                server.close();
+            }
+        }
+    }
+
+    public void performanceTest(int maxShards) {
+        try (FileWriter writer = new FileWriter("shardedThroughput.csv")) {
+            writer.write("#shards, ops_per_second, creates_per_second, reads_per_second, failures, errors, fan_out_results, fan_out_get_ms, distribution\n");
+
+            for (int shards = 1; shards <= maxShards; shards *= 2) {
+                runStep(writer, shards);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        ShardedThroughputTest test = new ShardedThroughputTest();
+        int maxShards = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        Benchmark.run("sharded run up to " + maxShards + " shards", () -> test.performanceTest(maxShards));
+    }
+}
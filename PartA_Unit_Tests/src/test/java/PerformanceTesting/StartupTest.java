@@ -0,0 +1,82 @@
+package PerformanceTesting;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Time from launching a server JVM to its first 200 on GET /todos, for the start-up options a
+ * per-scenario server can use: the plain JVM, C1 only (-XX:TieredStopAtLevel=1, less JIT work while
+ * booting), the AppCDS archive from {@link AppCdsArchive}, and both. Every configuration is started
+ * RUNS times and the minimum and median are kept. Rows are appended to startup.csv with the time of
+ * the run, so the file accumulates a history that can be tracked over time.
+ */
+public class StartupTest {
+
+    private static final int RUNS = 5;
+
+    private static final String C1_ONLY = "-XX:TieredStopAtLevel=1";
+    // -Xshare:auto is the JVM default (JDK classes only), stated so -Dperf.server.cds leaves it alone
+    private static final List<String> DEFAULT_OPTIONS = Collections.singletonList("-Xshare:auto");
+    private static final List<String> C1_OPTIONS = Arrays.asList("-Xshare:auto", C1_ONLY);
+
+    private double[] measure(List<String> jvmOptions, int runs) throws IOException {
+        double[] millis = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long startTime = System.nanoTime();
+            try (ServerProcess server = ServerProcess.start(jvmOptions)) {
+                millis[i] = (System.nanoTime() - startTime) / 1_000_000.0;
+            }
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private void record(FileWriter writer, String timestamp, String configuration, List<String> jvmOptions, int runs) throws IOException {
+        double[] millis = measure(jvmOptions, runs);
+        double min = millis[0];
+        double median = millis[runs / 2];
+
+        writer.write(timestamp + ", " + configuration + ", " + runs + ", " + min + ", " + median + "\n");
+        System.out.println(configuration + ": first 200 after " + String.format("%.0f ms", median) +
+                " (median), " + String.format("%.0f ms", min) + " (min)");
+    }
+
+    public void performanceTest(Path archive, int runs) {
+        Path csv = Paths.get("startup.csv");
+        boolean newFile = !Files.exists(csv);
+        try (FileWriter writer = new FileWriter(csv.toFile(), true)) {
+            if (newFile) {
+                writer.write("#timestamp, configuration, runs, min_time_to_first_200_ms, median_time_to_first_200_ms\n");
+            }
+            String timestamp = Instant.now().toString();
+
+            record(writer, timestamp, "default", DEFAULT_OPTIONS, runs);
+            record(writer, timestamp, "c1_only", C1_OPTIONS, runs);
+
+            if (!Files.exists(archive)) {
+                System.out.println("No AppCDS archive at " + archive + ", run mvn -Pappcds process-test-classes to build one");
+                return;
+            }
+            String cds = "-XX:SharedArchiveFile=" + archive.toAbsolutePath();
+            record(writer, timestamp, "appcds", Collections.singletonList(cds), runs);
+            record(writer, timestamp, "appcds_c1_only", Arrays.asList(cds, C1_ONLY), runs);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        StartupTest test = new StartupTest();
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : RUNS;
+        Path archive = Paths.get(args.length > 1 ? args[1] : AppCdsArchive.DEFAULT_ARCHIVE);
+
+        Benchmark.run("startup run with " + runs + " starts per configuration", () -> test.performanceTest(archive, runs));
+    }
+}
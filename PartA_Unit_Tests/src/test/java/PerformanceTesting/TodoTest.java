@@ -1,8 +1,8 @@
 package PerformanceTesting;
 
 import com.sun.management.OperatingSystemMXBean;
-import io.restassured.response.Response;
-import static io.restassured.RestAssured.given;
+import support.HarnessClient;
+import support.HarnessResponse;
 
 import java.lang.management.ManagementFactory;
 import java.util.HashMap;
@@ -16,39 +16,26 @@ public class TodoTest {
 
     private static final String BASE_URL = "http://localhost:4567";
 
-    private Response createTodo(String title, String description) {
-        Map<String, Object> todoData = new HashMap<>();
-        todoData.put("title", title);
-        todoData.put("description", description);
-
-        return given()
-                .baseUri(BASE_URL)
-                .contentType("application/json")
-                .body(todoData)
-                .when()
-                .post("/todos");
+    private static final PayloadTemplate CREATE_TODO = PayloadTemplate.compile(
+            "{\"title\":\"Title %d\",\"description\":\"Description for %dth object\"}");
+    private static final PayloadTemplate UPDATE_TODO = PayloadTemplate.compile(
+            "{\"title\":\"Updated Title for %dth object\",\"description\":\"Updated Description for %dth object\"}");
+
+    private final RouteMetrics metrics = new RouteMetrics();
+    private final HarnessClient client = HarnessClient.forRun(BASE_URL);
+    private final byte[] createBuffer = CREATE_TODO.newBuffer();
+    private final byte[] updateBuffer = UPDATE_TODO.newBuffer();
+
+    private HarnessResponse createTodo(int i) {
+        return client.send("POST", "/todos", createBuffer, CREATE_TODO.render(i, createBuffer));
     }
 
-    private Response updateTodo(int todoId, String title, String description) {
-        Map<String, Object> todoData = new HashMap<>();
-        todoData.put("title", title);
-        todoData.put("description", description);
-
-        return given()
-                .baseUri(BASE_URL)
-                .contentType("application/json")
-                .pathParam("id", todoId)
-                .body(todoData)
-                .when()
-                .post("/todos/{id}");
+    private HarnessResponse updateTodo(int todoId, int i) {
+        return client.send("POST", "/todos/" + todoId, updateBuffer, UPDATE_TODO.render(i, updateBuffer));
     }
 
-    private Response deleteTodo(int todoId) {
-        return given()
-                .baseUri(BASE_URL)
-                .pathParam("id", todoId)
-                .when()
-                .delete("/todos/{id}");
+    private HarnessResponse deleteTodo(int todoId) {
+        return client.send("DELETE", "/todos/" + todoId, null);
     }
 
     private void delay() {
@@ -94,25 +81,37 @@ public class TodoTest {
             // Create and Update todos
             for (int i = 1; i <= n; i++) {
                 // Create todo
+                RequestPhaseEvent createEvent = RequestPhaseEvent.begin("POST /todos", "request");
                 long startTime = System.nanoTime();
-                Response createResponse = createTodo("Title " + i, "Description for " + i + "th object");
+                HarnessResponse createResponse = createTodo(i);
                 long timeToCreate = System.nanoTime() - startTime;
-                int todoId = createResponse.jsonPath().getInt("id");
+                createEvent.finish();
+                metrics.record("POST", "/todos", createResponse, timeToCreate);
+                RequestPhaseEvent parseEvent = RequestPhaseEvent.begin("POST /todos", "parse_id");
+                int todoId = createResponse.getId();
+                parseEvent.finish();
                 todoIds.add(todoId);
                 delay();
 
                 // Record metrics after creating
+                RequestPhaseEvent createMetricsEvent = RequestPhaseEvent.begin("POST /todos", "system_metrics");
                 Map<String, Object> createMetrics = getSystemMetrics();
+                createMetricsEvent.finish();
                 double createMemoryUsage = (double) createMetrics.get("used_memory");
                 double createCpuUsage = (double) createMetrics.get("cpu_load");
 
                 // Update todo
+                RequestPhaseEvent updateEvent = RequestPhaseEvent.begin("POST /todos/{id}", "request");
                 startTime = System.nanoTime();
-                updateTodo(todoId, "Updated Title for " + i + "th object", "Updated Description for " + i + "th object");
+                HarnessResponse updateResponse = updateTodo(todoId, i);
                 long timeToUpdate = System.nanoTime() - startTime;
+                updateEvent.finish();
+                metrics.record("POST", "/todos/{id}", updateResponse, timeToUpdate);
 
                 // Record metrics after updating
+                RequestPhaseEvent updateMetricsEvent = RequestPhaseEvent.begin("POST /todos/{id}", "system_metrics");
                 Map<String, Object> updateMetrics = getSystemMetrics();
+                updateMetricsEvent.finish();
                 double updateMemoryUsage = (double) updateMetrics.get("used_memory");
                 double updateCpuUsage = (double) updateMetrics.get("cpu_load");
 
@@ -135,12 +134,17 @@ public class TodoTest {
 
             // Delete todos and write metrics to CSV
             for (int i = 0; i < todoIds.size(); i++) {
+                RequestPhaseEvent deleteEvent = RequestPhaseEvent.begin("DELETE /todos/{id}", "request");
                 long startTime = System.nanoTime();
-                deleteTodo(todoIds.get(i));
+                HarnessResponse deleteResponse = deleteTodo(todoIds.get(i));
                 long timeToDelete = System.nanoTime() - startTime;
+                deleteEvent.finish();
+                metrics.record("DELETE", "/todos/{id}", deleteResponse, timeToDelete);
 
                 // Record metrics after deleting
+                RequestPhaseEvent deleteMetricsEvent = RequestPhaseEvent.begin("DELETE /todos/{id}", "system_metrics");
                 Map<String, Object> deleteMetrics = getSystemMetrics();
+                deleteMetricsEvent.finish();
                 double deleteMemoryUsage = (double) deleteMetrics.get("used_memory");
                 double deleteCpuUsage = (double) deleteMetrics.get("cpu_load");
 
@@ -157,6 +161,9 @@ public class TodoTest {
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        metrics.writeTo("todoMetrics.prom", BASE_URL);
+        client.close();
     }
 
     public static void main(String[] args) {
@@ -164,7 +171,9 @@ public class TodoTest {
         int n = 1000;
 
         long startTime = System.nanoTime(); // Get the start time
-        test.performanceTest(n);
+        try (JfrRecording recording = JfrRecording.startIfEnabled("todo")) {
+            test.performanceTest(n);
+        }
         long endTime = System.nanoTime(); // Get the end time
     
         // Calculate the time taken in seconds
@@ -1,6 +1,7 @@
 import io.restassured.http.ContentType;
 import org.apache.commons.lang3.StringEscapeUtils;
 import io.restassured.RestAssured;
+import support.IdExtractor;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -13,6 +14,7 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -34,11 +36,14 @@ public class ProjectTest {
     private int projectId;
     private boolean projectDeleted = false; // Tells Tear Down to not delete the project as the Test already done so.
     
-    private String mockTitle = "Test Project";
+    // Unique per test, so tests running in parallel never see each other's fixtures
+    private final String prefix = "ProjectTest-" + UUID.randomUUID().toString().substring(0, 8) + " ";
+
+    private String mockTitle = prefix + "Test Project";
     private String mockDescription = "Description of the test project";
     private boolean mockCompleted = false;
     
-    private String mockUpdateTitle = "Updated Test Project";
+    private String mockUpdateTitle = prefix + "Updated Test Project";
     private String mockUpdateDescription = "Updated Description of the test project";
     private boolean mockUpdateCompleted = true;
 
@@ -47,7 +52,7 @@ public class ProjectTest {
      */
     @BeforeAll
     public static void initialSetup() {
-        RestAssured.baseURI = "http://localhost:4567";
+        RestAssured.baseURI = System.getProperty("todo.baseUri", "http://localhost:4567");
     }
 
     
@@ -58,7 +63,7 @@ public class ProjectTest {
     void testServerIsRunning() {
         projectDeleted = false;  // Reset the flag during setup
         try {
-            URL url = new URL("http://localhost:4567");
+            URL url = new URL(RestAssured.baseURI);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
             int responseCode = connection.getResponseCode();
@@ -88,7 +93,7 @@ public class ProjectTest {
         assertEquals(201, response.getStatusCode());
 
         // Extract the project ID for further operations
-        projectId = response.jsonPath().getInt("id");
+        projectId = IdExtractor.fromResponse(response);
         System.out.println("Set Up project with ID projectId");
 
         // Validate that the created project object indeed have the matching fields.
@@ -140,7 +145,9 @@ public class ProjectTest {
                 .get("/projects");
         assertEquals(200, response.getStatusCode());
 
-        // Validate that the filtered project object indeed have the matching fields.
+        // Validate that the filter returned exactly the project this test created.
+        assertEquals(1, response.jsonPath().getList("projects").size());
+        assertEquals(String.valueOf(projectId), response.jsonPath().getString("projects[0].id"));
         assertEquals(mockTitle, response.jsonPath().getString("projects[0].title"));
     }
 
@@ -173,7 +180,7 @@ public class ProjectTest {
         assertTrue(response.contentType().contains(ContentType.JSON.toString()));
 
         //delete the created Project to restore system state
-        int projectID = response.jsonPath().getInt("id");
+        int projectID = IdExtractor.fromResponse(response);
         Response deleteResponse = given()
                 .pathParam("id", projectID)
                 .when()
@@ -355,7 +362,7 @@ public class ProjectTest {
      */
     @Test
     public void testDeleteNonExistingProject() {
-        int projectId = 1000;
+        int projectId = Integer.MAX_VALUE;
         Response response = given()
                 .pathParam("id", projectId)
                 .when()
@@ -388,7 +395,7 @@ public class ProjectTest {
     @Test
     void testFetchProjectsWithNonExistentFilter() {
         Response response = given()
-                .queryParam("title", "non-existent-filter")
+                .queryParam("title", prefix + "non-existent-filter")
                 .when()
                 .get("/projects");
 
@@ -1,6 +1,6 @@
 import io.restassured.RestAssured;
+import support.IdExtractor;
 import io.restassured.response.Response;
-import org.junit.After;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +10,7 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,7 +25,10 @@ public class TodoTest {
     private int todoIdExtra;
     private boolean todoDeleted = false;
 
-    private final String TODO_TITLE = "Test Todo";
+    // Unique per test, so tests running in parallel never see each other's fixtures
+    private final String prefix = "TodoTest-" + UUID.randomUUID().toString().substring(0, 8) + " ";
+
+    private final String TODO_TITLE = prefix + "Test Todo";
     private final String TODO_DESCRIPTION = "Description of the test todo";
 
     private final String UPDATED_TITLE = "New title";
@@ -34,14 +38,14 @@ public class TodoTest {
 
     @BeforeAll
     public static void setup() {
-        RestAssured.baseURI = "http://localhost:4567";
+        RestAssured.baseURI = System.getProperty("todo.baseUri", "http://localhost:4567");
     }
 
     @Test
     void testServerIsRunning() {
         todoDeleted = false;  // Reset the flag during setup
         try {
-            URL url = new URL("http://localhost:4567");
+            URL url = new URL(RestAssured.baseURI);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
             int responseCode = connection.getResponseCode();
@@ -66,7 +70,7 @@ public class TodoTest {
         assertEquals(201, response.getStatusCode());
 
         // Extract the TODO ID for further operations
-        todoId = response.jsonPath().getInt("id");
+        todoId = IdExtractor.fromResponse(response);
         System.out.println("Set Up todo with ID " + todoId);
     }
 
@@ -81,6 +85,16 @@ public class TodoTest {
             assertEquals(200, response.getStatusCode());
         }
         todoDeleted = false;
+
+        // Delete the todo testCreateTodoWithXmlBody created
+        if (todoIdExtra != 0) {
+            Response response = given()
+                    .pathParam("id", todoIdExtra)
+                    .when()
+                    .delete("/todos/{id}");
+            assertEquals(200, response.getStatusCode());
+            todoIdExtra = 0;
+        }
     }
 
     @Test
@@ -171,15 +185,7 @@ public class TodoTest {
 
         assertEquals(201, response.getStatusCode());
 
-        todoIdExtra = response.jsonPath().getInt("id");
-    }
-    @After
-    void deleteTodoExtra() {
-        Response response = given()
-                .pathParam("id", todoIdExtra)
-                .when()
-                .delete("/todos/{id}");
-        assertEquals(200, response.getStatusCode());
+        todoIdExtra = IdExtractor.fromResponse(response);
     }
 
     @Test
@@ -211,7 +217,7 @@ public class TodoTest {
     @Test
     void testFetchTodoWithNonExistentFilter() {
         Response response = given()
-                .queryParam("title", "non-existent-filter")
+                .queryParam("title", prefix + "non-existent-filter")
                 .when()
                 .get("/todos");
 
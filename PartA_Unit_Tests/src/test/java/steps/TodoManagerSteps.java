@@ -1,10 +1,10 @@
 package steps;
 
+import support.IdExtractor;
 import io.cucumber.java.en.And;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
-import static io.restassured.RestAssured.given;
-import static io.restassured.RestAssured.when;
+import io.restassured.specification.RequestSpecification;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -16,57 +16,38 @@ import io.cucumber.java.en.When;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.And;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.List;
 import java.util.Map;
 
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
 
 public class TodoManagerSteps {
     private Response response;
     private String endpoint;
-    private Process apiProcess;
     private String projectId;
 
+    // Base URI of this worker's server, requests never go through the global RestAssured.baseURI
+    private String baseUri;
+
     @Given("the Todo Manager API is running")
-    public void apiRunning() {
-        RestAssured.baseURI = "http://localhost:4567";
-        if (!isApiRunning()) {
-            startApi();
-        } else {
-            try {      
-                given().when().get("/shutdown");
-            } catch (Exception e) { } 
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            startApi();
-        }
+    public void apiRunning() throws IOException {
+        // A fresh server per scenario, so scenarios start from the same data
+        baseUri = WorkerServer.acquire();
     }
 
-    private boolean isApiRunning() {
-        try {
-            URL url = new URL("http://localhost:4567/todos");
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.connect();
-            int responseCode = connection.getResponseCode();
-            return responseCode == 200;
-        } catch (IOException e) {
-            return false;
-        }
+    @After
+    public void releaseServer() {
+        WorkerServer.release();
     }
 
-    private void startApi() {
-        try {
-            apiProcess = new ProcessBuilder("java", "-jar", "runTodoManagerRestAPI-1.5.5.jar").start();
-            Thread.sleep(300);
-        } catch (IOException | InterruptedException e) {
-            e.printStackTrace();
-        }
+    @AfterAll
+    public static void stopServers() {
+        WorkerServer.closeAll();
+    }
+
+    private RequestSpecification given() {
+        return RestAssured.given().baseUri(baseUri);
     }
 
     @Given("a project with the name {string} already exists")
@@ -83,7 +64,7 @@ public class TodoManagerSteps {
                                   .extract()
                                   .response();
         
-        projectId = postResponse.path("id"); // Assuming 'id' is the field in the JSON response containing the project ID
+        projectId = String.valueOf(IdExtractor.fromResponse(postResponse));
     }
 
     @Given("no project exists")
@@ -349,27 +330,27 @@ public class TodoManagerSteps {
     @When("I send a PUT request with ID {string} and request body containing new title {string} and new description {string}")
     public void sendPutRequestWithNewTitleAndDescription(String categoryId, String newTitle, String newDescription) {
         String requestBody = "{\"title\":\"" + newTitle + "\",\"description\":\"" + newDescription + "\"}";
-        response = RestAssured.given().header("Content-Type", "application/json").body(requestBody)
+        response = given().header("Content-Type", "application/json").body(requestBody)
                 .put("/categories/" + categoryId);
     }
 
     @When("I send a PUT request with ID {string} and request body containing modified title {string} and new description {string}")
     public void sendPutRequestWithModifiedTitleAndDescription(String categoryId, String modifiedTitle, String newDescription) {
         String requestBody = "{\"title\":\"" + modifiedTitle + "\",\"description\":\"" + newDescription + "\"}";
-        response = RestAssured.given().header("Content-Type", "application/json").body(requestBody)
+        response = given().header("Content-Type", "application/json").body(requestBody)
                 .put("/categories/" + categoryId);
     }
 
     //delete category
     @When("I make a DELETE request with ID {string}")
     public void deleteCategoryById(String categoryId) {
-        response = RestAssured.delete("/categories/" + categoryId);
+        response = given().delete("/categories/" + categoryId);
     }
 
     @Then("I verify that the category with ID {string} no longer exists in the system by sending a GET request and receiving a response with status code 404")
     public void verifyCategoryDoesNotExist(String deletedCategoryId) {
         // Ensure that the category with the deleted ID no longer exists
-        Response getResponse = RestAssured.get("/categories/" + deletedCategoryId);
+        Response getResponse = given().get("/categories/" + deletedCategoryId);
         getResponse.then().statusCode(404);
     }
 }
@@ -0,0 +1,76 @@
+package steps;
+
+import PerformanceTesting.ServerPool;
+import PerformanceTesting.ServerProcess;
+
+import java.io.IOException;
+
+/**
+ * The Todo Manager server of the Cucumber worker thread running the current scenario. Scenarios
+ * run in parallel, one per worker thread at a time, and every scenario gets a server of its own
+ * from a {@link ServerPool} of warmed servers instead of sharing localhost:4567, so scenarios
+ * never see each other's data. A scenario runs all its steps on one thread, which makes the
+ * thread the worker context.
+ */
+public final class WorkerServer {
+
+    private static final ThreadLocal<ServerProcess> SERVER = new ThreadLocal<>();
+    private static ServerPool pool;
+
+    static {
+        // Servers of a run that is interrupted before @AfterAll
+        Runtime.getRuntime().addShutdownHook(new Thread(WorkerServer::closeAll, "worker-server-shutdown"));
+    }
+
+    private WorkerServer() {
+    }
+
+    private static synchronized ServerPool getPool() {
+        if (pool == null) {
+            pool = ServerPool.forRun();
+        }
+        return pool;
+    }
+
+    /**
+     * Gives this worker a fresh server for the current scenario, handing back the one it may
+     * still hold, and returns its base URI.
+     */
+    public static String acquire() throws IOException {
+        release();
+        ServerProcess server = getPool().acquire();
+        SERVER.set(server);
+        return server.getBaseUrl();
+    }
+
+    /**
+     * Hands this worker's server back to the pool, which replaces it in the background. After
+     * {@link #closeAll()} there is no pool and the server is stopped instead.
+     */
+    public static void release() {
+        ServerProcess server = SERVER.get();
+        if (server == null) {
+            return;
+        }
+        SERVER.remove();
+        ServerPool current;
+        synchronized (WorkerServer.class) {
+            current = pool;
+        }
+        if (current != null) {
+            current.release(server);
+        } else {
+            server.close();
+        }
+    }
+
+    /**
+     * Reports the pool's hit rate and acquisition latency and stops every server.
+     */
+    public static synchronized void closeAll() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+}
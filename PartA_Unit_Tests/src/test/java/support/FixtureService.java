@@ -0,0 +1,191 @@
+package support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Seeds, refreshes and tears down the todo + project + category graph a test works on. The
+ * server has no bulk or expand endpoint, every entity is its own request, so the requests of a
+ * step are sent concurrently: creating, re-fetching or deleting the three entities costs one
+ * round trip of latency instead of three.
+ */
+public class FixtureService implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HarnessClient client;
+    private final ExecutorService fanOut;
+
+    /**
+     * The entities of one test, kept as the maps the tests post and read. Each map holds the
+     * entity's fields as last seen on the server; a null map is not seeded or has been deleted.
+     */
+    public static class Graph {
+        public HashMap<String, Object> todo;
+        public HashMap<String, Object> project;
+        public HashMap<String, Object> category;
+    }
+
+    public FixtureService(String baseUrl) {
+        this(HarnessClient.create("lean", baseUrl));
+    }
+
+    FixtureService(HarnessClient client) {
+        this.client = client;
+        // Tests run in parallel and each fans out up to three requests
+        this.fanOut = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fixture-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates an unlinked todo, project and category titled prefix + "testTodo", "testProject"
+     * and "testCategory". When one of them cannot be created, the others are deleted again
+     * before the failure is thrown: the caller gets no graph to tear down.
+     */
+    public Graph seed(String prefix) {
+        Graph graph = new Graph();
+        graph.todo = titled(prefix + "testTodo");
+        graph.project = titled(prefix + "testProject");
+        graph.category = titled(prefix + "testCategory");
+        try {
+            awaitAll(List.of(
+                    async(() -> create("/todos", graph.todo)),
+                    async(() -> create("/projects", graph.project)),
+                    async(() -> create("/categories", graph.category))));
+        } catch (RuntimeException e) {
+            // Only the entities that got an id exist on the server
+            graph.todo = graph.todo.containsKey("id") ? graph.todo : null;
+            graph.project = graph.project.containsKey("id") ? graph.project : null;
+            graph.category = graph.category.containsKey("id") ? graph.category : null;
+            try {
+                teardown(graph);
+            } catch (RuntimeException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+        return graph;
+    }
+
+    /**
+     * Re-fetches every entity of the graph and merges its current fields into its map.
+     */
+    public void refresh(Graph graph) {
+        List<CompletableFuture<Void>> fetches = new ArrayList<>();
+        if (graph.todo != null) {
+            fetches.add(async(() -> fetch("/todos", "todos", graph.todo)));
+        }
+        if (graph.project != null) {
+            fetches.add(async(() -> fetch("/projects", "projects", graph.project)));
+        }
+        if (graph.category != null) {
+            fetches.add(async(() -> fetch("/categories", "categories", graph.category)));
+        }
+        awaitAll(fetches);
+    }
+
+    /**
+     * Deletes every entity of the graph and clears its map. Throws when a delete did not answer
+     * 200, after all of them have been sent.
+     */
+    public void teardown(Graph graph) {
+        Map<String, Object> todo = graph.todo;
+        Map<String, Object> project = graph.project;
+        Map<String, Object> category = graph.category;
+        List<CompletableFuture<Void>> deletes = new ArrayList<>();
+        if (todo != null) {
+            deletes.add(async(() -> delete("/todos", todo)));
+        }
+        if (project != null) {
+            deletes.add(async(() -> delete("/projects", project)));
+        }
+        if (category != null) {
+            deletes.add(async(() -> delete("/categories", category)));
+        }
+        graph.todo = null;
+        graph.project = null;
+        graph.category = null;
+        awaitAll(deletes);
+    }
+
+    private static HashMap<String, Object> titled(String title) {
+        HashMap<String, Object> entity = new HashMap<>();
+        entity.put("title", title);
+        return entity;
+    }
+
+    private void create(String collection, Map<String, Object> entity) {
+        HarnessResponse response = client.send("POST", collection, entity);
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException("POST " + collection + " answered " + response.getStatusCode() + ": " + response.asString());
+        }
+        entity.putAll(parse(response.getBody()));
+    }
+
+    private void fetch(String collection, String field, Map<String, Object> entity) {
+        HarnessResponse response = client.send("GET", collection + "/" + entity.get("id"), null);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET " + collection + "/" + entity.get("id") + " answered " + response.getStatusCode());
+        }
+        // {"todos":[{...}]}
+        List<?> entities = (List<?>) parse(response.getBody()).get(field);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fields = (Map<String, Object>) entities.get(0);
+        entity.putAll(fields);
+    }
+
+    private void delete(String collection, Map<String, Object> entity) {
+        HarnessResponse response = client.send("DELETE", collection + "/" + entity.get("id"), null);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("DELETE " + collection + "/" + entity.get("id") + " answered " + response.getStatusCode());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(byte[] body) {
+        try {
+            return MAPPER.readValue(body, Map.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Response is not a JSON object", e);
+        }
+    }
+
+    private CompletableFuture<Void> async(Runnable request) {
+        return CompletableFuture.runAsync(request, fanOut);
+    }
+
+    // Waits for every request, then rethrows the first failure
+    private static void awaitAll(List<CompletableFuture<Void>> requests) {
+        RuntimeException failure = null;
+        for (CompletableFuture<Void> request : requests) {
+            try {
+                request.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() {
+        fanOut.shutdown();
+        client.close();
+    }
+}
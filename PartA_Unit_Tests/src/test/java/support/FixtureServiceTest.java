@@ -0,0 +1,91 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FixtureServiceTest {
+
+    /**
+     * Answers creates with 201 and the next id, except on the failing collection, and records
+     * every delete.
+     */
+    private static class FakeClient implements HarnessClient {
+
+        private final String failingCollection;
+        private final AtomicInteger nextId = new AtomicInteger(1);
+        private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+
+        FakeClient(String failingCollection) {
+            this.failingCollection = failingCollection;
+        }
+
+        @Override
+        public HarnessResponse send(String method, String path, Map<String, Object> body) {
+            if (method.equals("POST")) {
+                if (path.equals(failingCollection)) {
+                    return response(500, "{}");
+                }
+                return response(201, "{\"id\":\"" + nextId.getAndIncrement() + "\",\"title\":\"" + body.get("title") + "\"}");
+            }
+            if (method.equals("DELETE")) {
+                deleted.add(path);
+                return response(200, "");
+            }
+            return response(404, "{}");
+        }
+
+        @Override
+        public HarnessResponse send(String method, String path, byte[] json, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static HarnessResponse response(int status, String body) {
+            return new HarnessResponse(status, body.getBytes(StandardCharsets.UTF_8), null);
+        }
+    }
+
+    @Test
+    void testFailedSeedDeletesWhatItCreated() {
+        FakeClient client = new FakeClient("/projects");
+        try (FixtureService fixtures = new FixtureService(client)) {
+            assertThrows(IllegalStateException.class, () -> fixtures.seed("failedSeed_"));
+        }
+
+        // The todo and the category were created, the project was not
+        Set<String> collections = client.deleted.stream()
+                .map(path -> path.substring(0, path.lastIndexOf('/')))
+                .collect(Collectors.toSet());
+        assertEquals(2, client.deleted.size());
+        assertEquals(Set.of("/todos", "/categories"), collections);
+    }
+
+    @Test
+    void testSeedAndTeardown() {
+        FakeClient client = new FakeClient(null);
+        try (FixtureService fixtures = new FixtureService(client)) {
+            FixtureService.Graph graph = fixtures.seed("seed_");
+            assertEquals("seed_testProject", graph.project.get("title"));
+
+            List<Object> ids = List.of(graph.todo.get("id"), graph.project.get("id"), graph.category.get("id"));
+            fixtures.teardown(graph);
+
+            assertEquals(Set.of("/todos/" + ids.get(0), "/projects/" + ids.get(1), "/categories/" + ids.get(2)), client.deleted);
+            assertNull(graph.todo);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package support;
+
+import java.util.Map;
+
+/**
+ * HTTP client the performance tests send their requests through. Pick one per run with
+ * -Dperf.client: "restassured" (the default, same code path as the functional tests) or "lean"
+ * ({@link LeanClient}, pooled keep-alive connections and no RestAssured machinery), so the
+ * harness's own overhead can be taken out of the measured latency.
+ */
+public interface HarnessClient extends AutoCloseable {
+
+    /**
+     * Sends the request and returns the response. A body is sent as JSON, null sends none.
+     */
+    HarnessResponse send(String method, String path, Map<String, Object> body);
+
+    /**
+     * Sends the first length bytes of json as the body, e.g. a body a PayloadTemplate rendered
+     * into a reused buffer. The buffer may be reused once this returns.
+     */
+    HarnessResponse send(String method, String path, byte[] json, int length);
+
+    @Override
+    void close();
+
+    static HarnessClient forRun(String baseUrl) {
+        return create(System.getProperty("perf.client", "restassured"), baseUrl);
+    }
+
+    static HarnessClient create(String name, String baseUrl) {
+        switch (name) {
+            case "restassured":
+                return new RestAssuredClient(baseUrl);
+            case "lean":
+                return new LeanClient(baseUrl);
+            default:
+                throw new IllegalArgumentException("Unknown perf.client " + name + ", expected restassured or lean");
+        }
+    }
+}
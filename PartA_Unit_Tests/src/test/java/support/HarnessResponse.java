@@ -0,0 +1,54 @@
+package support;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Status, body and Location header of a response received by a {@link HarnessClient}. Kept
+ * independent of RestAssured so both clients hand the performance tests the same thing.
+ */
+public class HarnessResponse {
+
+    private final int statusCode;
+    private final byte[] body;
+    private final String location;
+
+    public HarnessResponse(int statusCode, byte[] body, String location) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.location = location;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String asString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Location header of a 201, e.g. "todos/12", or null when the server sent none.
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Id of the entity the request created or returned, from the Location header when there is
+     * one and from the body otherwise (see {@link IdExtractor}).
+     */
+    public int getId() {
+        int id = IdExtractor.fromLocation(location);
+        if (id == IdExtractor.NOT_FOUND) {
+            id = IdExtractor.fromJson(body);
+        }
+        if (id == IdExtractor.NOT_FOUND) {
+            throw new IllegalStateException("No id in " + statusCode + " response: " + asString());
+        }
+        return id;
+    }
+}
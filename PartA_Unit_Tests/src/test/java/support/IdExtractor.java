@@ -0,0 +1,131 @@
+package support;
+
+import io.restassured.response.Response;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Gets the id of a created entity without parsing the response into an object graph.
+ * {@code response.jsonPath().getInt("id")} builds a Groovy structure for the whole body just to
+ * read one field; the Location header of a 201 ("todos/12") already names the id, and when it is
+ * missing a single pass over the body bytes finds the top-level "id" field. The server sends ids
+ * as JSON strings, plain numbers are accepted too.
+ */
+public final class IdExtractor {
+
+    public static final int NOT_FOUND = -1;
+
+    private IdExtractor() {
+    }
+
+    /**
+     * Id at the end of a Location header ("todos/12", "/todos/12" or an absolute URL), or
+     * NOT_FOUND when the last path segment is not a number.
+     */
+    public static int fromLocation(String location) {
+        if (location == null) {
+            return NOT_FOUND;
+        }
+        int start = location.lastIndexOf('/') + 1;
+        if (start >= location.length()) {
+            return NOT_FOUND;
+        }
+        int id = 0;
+        for (int i = start; i < location.length(); i++) {
+            char c = location.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_FOUND;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    /**
+     * Value of the "id" field of the top-level JSON object in body, or NOT_FOUND. Nested
+     * objects (e.g. the ids inside "tasksof") are skipped.
+     */
+    public static int fromJson(byte[] body) {
+        int depth = 0;
+        int i = 0;
+        while (i < body.length) {
+            byte b = body[i];
+            if (b == '"') {
+                int start = i + 1;
+                i = skipString(body, start);
+                boolean isId = depth == 1 && i - start == 3 && body[start] == 'i' && body[start + 1] == 'd';
+                if (isId) {
+                    int colon = skipWhitespace(body, i);
+                    if (colon < body.length && body[colon] == ':') {
+                        return parseInt(body, skipWhitespace(body, colon + 1));
+                    }
+                }
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return NOT_FOUND;
+    }
+
+    public static int fromJson(String body) {
+        return fromJson(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Id of the entity a RestAssured response created or returned: from the Location header
+     * when there is one, from the body otherwise.
+     */
+    public static int fromResponse(Response response) {
+        int id = fromLocation(response.getHeader("Location"));
+        if (id == NOT_FOUND) {
+            id = fromJson(response.asByteArray());
+        }
+        if (id == NOT_FOUND) {
+            throw new IllegalStateException("No id in " + response.getStatusCode() + " response: " + response.asString());
+        }
+        return id;
+    }
+
+    // Index just past the closing quote of the string whose content starts at start
+    private static int skipString(byte[] body, int start) {
+        int i = start;
+        while (i < body.length) {
+            byte b = body[i];
+            if (b == '\\') {
+                i += 2;
+            } else if (b == '"') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return body.length;
+    }
+
+    private static int skipWhitespace(byte[] body, int start) {
+        int i = start;
+        while (i < body.length && (body[i] == ' ' || body[i] == '\t' || body[i] == '\n' || body[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseInt(byte[] body, int start) {
+        int i = start;
+        if (i < body.length && body[i] == '"') {
+            i++;
+        }
+        int digitsStart = i;
+        int id = 0;
+        while (i < body.length && body[i] >= '0' && body[i] <= '9') {
+            id = id * 10 + (body[i] - '0');
+            i++;
+        }
+        return i == digitsStart ? NOT_FOUND : id;
+    }
+}
@@ -0,0 +1,82 @@
+package support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@link HarnessClient} on java.net.http.HttpClient. The client keeps HTTP/1.1 connections alive
+ * in its pool and reuses them across requests and threads, and one request template (timeout and
+ * headers) is built up front and copied for every send, so a request costs a JSON serialization
+ * (none for a body rendered ahead of time) and the exchange itself.
+ */
+public class LeanClient implements HarnessClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final HttpRequest.Builder template = HttpRequest.newBuilder()
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json");
+
+    public LeanClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    @Override
+    public HarnessResponse send(String method, String path, Map<String, Object> body) {
+        HttpRequest.Builder request = template.copy().uri(URI.create(baseUrl + path));
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            try {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Body is not serializable: " + body, e);
+            }
+        }
+        return exchange(method, path, request);
+    }
+
+    @Override
+    public HarnessResponse send(String method, String path, byte[] json, int length) {
+        HttpRequest.Builder request = template.copy()
+                .uri(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(json, 0, length));
+        return exchange(method, path, request);
+    }
+
+    private HarnessResponse exchange(String method, String path, HttpRequest.Builder request) {
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            return new HarnessResponse(response.statusCode(), response.body(),
+                    response.headers().firstValue("Location").orElse(null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during " + method + " " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // HttpClient has no close before JDK 21, its pooled connections go when it is collected
+    }
+}
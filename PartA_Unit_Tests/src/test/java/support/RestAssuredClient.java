@@ -0,0 +1,49 @@
+package support;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import static io.restassured.RestAssured.given;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * {@link HarnessClient} that builds a RestAssured spec per request, as the performance tests did
+ * before the client became selectable.
+ */
+public class RestAssuredClient implements HarnessClient {
+
+    private final String baseUrl;
+
+    public RestAssuredClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public HarnessResponse send(String method, String path, Map<String, Object> body) {
+        RequestSpecification request = given().baseUri(baseUrl);
+        if (body != null) {
+            request = request.contentType("application/json").body(body);
+        }
+        return toHarnessResponse(request.when().request(method, path));
+    }
+
+    @Override
+    public HarnessResponse send(String method, String path, byte[] json, int length) {
+        Response response = given()
+                .baseUri(baseUrl)
+                .contentType("application/json")
+                .body(Arrays.copyOf(json, length))
+                .when()
+                .request(method, path);
+        return toHarnessResponse(response);
+    }
+
+    private static HarnessResponse toHarnessResponse(Response response) {
+        return new HarnessResponse(response.getStatusCode(), response.asByteArray(), response.getHeader("Location"));
+    }
+
+    @Override
+    public void close() {
+    }
+}